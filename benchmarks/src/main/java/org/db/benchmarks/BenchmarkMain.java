@@ -0,0 +1,33 @@
+package org.db.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count, so throughput and latency percentiles can be compared
+ * as concurrency grows. Results are written to {@code results-<threads>t.json}.
+ * <p>
+ * Usage: {@code java -Dthreads=1,4,16 -jar target/benchmarks.jar [JMH options, e.g. a benchmark regex]}
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        for (String value : System.getProperty("threads", "1,4,16").split(",")) {
+            int threads = Integer.parseInt(value.trim());
+            new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("results-" + threads + "t.json")
+                    .build()).run();
+        }
+    }
+}
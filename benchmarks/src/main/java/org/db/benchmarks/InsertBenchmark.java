@@ -0,0 +1,79 @@
+package org.db.benchmarks;
+
+import org.db.connection.PooledDbConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-row {@code insert} against {@code insertAll} for the same number of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    @Param({"0", "200"})
+    public long latencyMicros;
+
+    @Param({"1", "100", "1000"})
+    public int rows;
+
+    private PooledDbConnection db;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.db = LocalDatabase.open(this.latencyMicros, 64);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.db.disconnect();
+    }
+
+    @Benchmark
+    public int insertOneByOne() {
+        int inserted = 0;
+        for (Map.Entry<String, String> row : nextRows()) {
+            if (this.db.insert(LocalDatabase.TABLE, row.getKey(), row.getValue())) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    @Benchmark
+    public int[] insertAll() {
+        return this.db.insertAll(LocalDatabase.TABLE, nextRows());
+    }
+
+    private List<Map.Entry<String, String>> nextRows() {
+        long first = this.sequence.getAndAdd(this.rows);
+        List<Map.Entry<String, String>> batch = new ArrayList<>(this.rows);
+        for (long i = first; i < first + this.rows; i++) {
+            batch.add(new AbstractMap.SimpleImmutableEntry<>("user" + i, "user" + i + "@bench.local"));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,118 @@
+package org.db.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver that wraps another URL and adds a fixed delay to every round trip
+ * (statement execution, batch execution, commit and rollback), to mimic the network
+ * between the application and a remote MySQL server.
+ * <p>
+ * URL format: {@code jdbc:latency:<micros>:<wrapped JDBC URL>}, e.g.
+ * {@code jdbc:latency:200:jdbc:h2:mem:bench;MODE=MySQL}.
+ */
+public final class LatencyDriver implements Driver {
+
+    private static final String PREFIX = "jdbc:latency:";
+
+    private static final Set<String> ROUND_TRIPS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch", "commit", "rollback");
+
+    static {
+        try {
+            DriverManager.registerDriver(new LatencyDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Makes sure the driver is registered, and builds a URL for it.
+     * @param latencyMicros Delay added to each round trip; 0 returns {@code url} unchanged.
+     * @param url The wrapped JDBC URL.
+     */
+    public static String url(long latencyMicros, String url) {
+        return latencyMicros <= 0 ? url : PREFIX + latencyMicros + ":" + url;
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        int separator = url.indexOf(':', PREFIX.length());
+        long delayNanos = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(url.substring(PREFIX.length(), separator)));
+        Connection target = DriverManager.getConnection(url.substring(separator + 1), info);
+        return wrap(Connection.class, target, delayNanos);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Proxies a connection or statement: round-trip methods sleep first, and statements created
+     * by a proxied connection are proxied too.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target, long delayNanos) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (ROUND_TRIPS.contains(method.getName())) {
+                LockSupport.parkNanos(delayNanos);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof PreparedStatement statement && method.getReturnType() == PreparedStatement.class) {
+                return wrap(PreparedStatement.class, statement, delayNanos);
+            }
+            if (result instanceof Statement statement && method.getReturnType() == Statement.class) {
+                return wrap(Statement.class, statement, delayNanos);
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package org.db.benchmarks;
+
+import org.db.connection.PooledDbConnection;
+import org.db.model.UserRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Full-table reads ({@code select} callback and {@code stream}), point lookups and {@code check}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectBenchmark {
+
+    @Param({"0", "200"})
+    public long latencyMicros;
+
+    @Param({"1000", "100000"})
+    public int tableRows;
+
+    private PooledDbConnection db;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.db = LocalDatabase.open(this.latencyMicros, 64);
+        List<Map.Entry<String, String>> rows = new ArrayList<>(this.tableRows);
+        for (int i = 0; i < this.tableRows; i++) {
+            rows.add(new AbstractMap.SimpleImmutableEntry<>("user" + i, "user" + i + "@bench.local"));
+        }
+        this.db.insertAll(LocalDatabase.TABLE, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.db.disconnect();
+    }
+
+    @Benchmark
+    public Boolean selectCallback(Blackhole blackhole) {
+        return this.db.select(LocalDatabase.TABLE, blackhole::consume);
+    }
+
+    @Benchmark
+    public long stream() {
+        try (Stream<UserRow> rows = this.db.stream(LocalDatabase.TABLE)) {
+            return rows.count();
+        }
+    }
+
+    @Benchmark
+    public Optional<UserRow> findByEmail() {
+        int i = ThreadLocalRandom.current().nextInt(this.tableRows);
+        return this.db.findByEmail(LocalDatabase.TABLE, "user" + i + "@bench.local");
+    }
+
+    @Benchmark
+    public Boolean check() {
+        return this.db.check();
+    }
+}
@@ -1,8 +1,42 @@
 package org.db.connection;
 
+import com.mysql.cj.jdbc.JdbcPreparedStatement;
+import com.mysql.cj.jdbc.JdbcStatement;
+import com.mysql.cj.jdbc.ParameterBindings;
+import com.mysql.cj.jdbc.result.ResultSetInternalMethods;
 import org.db.interfaces.IDbConnection;
+import org.db.interfaces.IDbMetrics;
+import org.db.interfaces.IDbMetrics.Operation;
+import org.db.interfaces.RowMapper;
+import org.db.metrics.NoOpDbMetrics;
+import org.db.metrics.StatementTracer;
+import org.db.model.UserRow;
+import org.db.model.WriteCounts;
 
 import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Abstract base class for database connections.
@@ -11,10 +45,45 @@ import java.sql.*;
  */
 public abstract class ADbConnection implements IDbConnection {
 
+    private static final Logger LOG = Logger.getLogger(ADbConnection.class.getName());
+
     protected final String url;
     protected final String user;
     protected final String password;
-    protected Connection connection = null;
+    protected volatile Connection connection = null;
+
+    /**
+     * Default number of rows sent to the database per {@code executeBatch} call.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    protected int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Rows fetched per round trip by streaming queries when a server-side cursor or a non-MySQL driver is used.
+     */
+    public static final int STREAM_FETCH_SIZE = 1000;
+
+    private final Map<String, String> driverProperties = new LinkedHashMap<>();
+    private final Map<String, String> insertSqlByTable = new ConcurrentHashMap<>();
+    private final Map<String, String> findByEmailSqlByTable = new ConcurrentHashMap<>();
+    private final Map<String, String> findByIdSqlByTable = new ConcurrentHashMap<>();
+    private final Map<String, String> multiRowSqlByKey = new ConcurrentHashMap<>();
+    private final Map<String, String> columnSqlByKey = new ConcurrentHashMap<>();
+    protected final SchemaRegistry schema;
+    protected volatile StatementCache statementCache = null;
+    protected volatile WriteBehindBuffer writeBehind = null;
+    protected volatile UserCache userCache = null;
+    protected volatile StatementTracer tracer = null;
+    protected volatile IDbMetrics metrics = NoOpDbMetrics.INSTANCE;
+
+    /**
+     * Default number of extra attempts {@link #inTransaction(Function)} makes after a deadlock or serialization failure.
+     */
+    public static final int DEFAULT_TRANSACTION_RETRIES = 3;
+
+    private final ThreadLocal<Transaction> transaction = new ThreadLocal<>();
+    protected int transactionRetries = DEFAULT_TRANSACTION_RETRIES;
 
     /**
      * Constructor to initialize the connection details.
@@ -29,6 +98,7 @@ public abstract class ADbConnection implements IDbConnection {
         this.url = url;
         this.user = user;
         this.password = password;
+        this.schema = SchemaRegistry.forDatabase(url, user);
     }
 
     /**
@@ -45,145 +115,1711 @@ public abstract class ADbConnection implements IDbConnection {
     }
 
     /**
-     * Checks if the connection is currently active and valid.
-     * @return true if the connection is not null and not closed, false otherwise.
+     * Sets how many rows {@link #insertAll(String, Iterable)} accumulates before sending them to the database.
+     * @param batchSize The number of rows per batch; must be positive.
      */
-    public boolean isConnected() {
-        try {
-            return this.connection != null && !this.connection.isClosed();
-        } catch (SQLException e) {
-            System.err.println("Error checking connection status: " + e.getMessage());
-            return false;
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
         }
+        this.batchSize = batchSize;
     }
 
     /**
-     * Selects and displays all records from a table.
-     * Assumes the table has at least 'id', 'nome', and 'email' columns.
-     * @param table The name of the table to query (e.g., "usuarios").
-     * @return true if the select is successful and prints results, false if an error occurs.
+     * @return The number of rows sent per batch by {@link #insertAll(String, Iterable)}.
      */
-    @Override
-    public Boolean select(String table) {
-        if (!isConnected()) {
-            System.err.println("Não é possível buscar dados. A conexão com o banco de dados não está ativa.");
-            return false;
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * Keeps up to {@code maxSize} prepared statements open for reuse, and turns on Connector/J's
+     * own client-side statement cache. Must be called before {@link #connect()} for the driver
+     * properties to take effect.
+     * @param maxSize Maximum number of idle statements kept open.
+     * @param serverPrepared true to also enable {@code useServerPrepStmts}, so the server parses each SQL only once.
+     */
+    public void enableStatementCache(int maxSize, boolean serverPrepared) {
+        StatementCache previous = this.statementCache;
+        this.statementCache = new StatementCache(maxSize);
+        if (previous != null) {
+            previous.clear();
         }
+        setDriverProperty("cachePrepStmts", "true");
+        setDriverProperty("prepStmtCacheSize", String.valueOf(maxSize));
+        if (serverPrepared) {
+            setDriverProperty("useServerPrepStmts", "true");
+        }
+    }
+
+    /**
+     * Same as {@link #enableStatementCache(int, boolean)} without server-side prepared statements.
+     */
+    public void enableStatementCache(int maxSize) {
+        enableStatementCache(maxSize, false);
+    }
+
+    /**
+     * Closes every cached statement and stops caching new ones.
+     */
+    public void disableStatementCache() {
+        StatementCache previous = this.statementCache;
+        this.statementCache = null;
+        if (previous != null) {
+            previous.clear();
+        }
+    }
 
+    /**
+     * @return The statement cache with its hit/miss counters, or null when caching is disabled.
+     */
+    public StatementCache getStatementCache() {
+        return this.statementCache;
+    }
 
-        String selectSQL = String.format("SELECT id, nome, email FROM %s", table);
+    /**
+     * Lets {@link FileImporter} stream files with {@code LOAD DATA LOCAL INFILE} by setting Connector/J's
+     * {@code allowLoadLocalInfile}. Must be called before {@link #connect()}; the server must also have
+     * {@code local_infile} enabled.
+     */
+    public void enableLocalInfile() {
+        setDriverProperty("allowLoadLocalInfile", "true");
+    }
 
-        System.out.println("Executando busca de dados na tabela: " + table);
+    /**
+     * Makes streaming reads ({@code stream}, {@code select}, {@link ChangeExporter}) use a server-side cursor,
+     * fetching {@link #STREAM_FETCH_SIZE} rows per round trip, by setting Connector/J's {@code useCursorFetch}.
+     * Without it, Connector/J streams rows one by one and the connection stays busy until the last row is read.
+     * Must be called before {@link #connect()}.
+     */
+    public void enableCursorFetch() {
+        setDriverProperty("useCursorFetch", "true");
+    }
 
-        // 3. Usar try-with-resources para PreparedStatement e ResultSet
-        try (PreparedStatement preparedStatement = this.connection.prepareStatement(selectSQL);
-             ResultSet resultSet = preparedStatement.executeQuery()) {
+    /**
+     * Routes {@link #insert(String, String, String)} through a write-behind buffer: rows are queued and
+     * written in groups by a background thread, and {@code insert} returns as soon as the row is queued.
+     * {@link #disconnect()} flushes the buffer before closing the connection.
+     * @param capacity Maximum number of rows waiting in memory.
+     * @param flushSize Number of waiting rows that triggers a flush.
+     * @param flushInterval Maximum time a row waits before it is flushed.
+     * @param policy What {@code insert} does when the buffer is full.
+     * @return The buffer, for its counters.
+     */
+    public synchronized WriteBehindBuffer enableWriteBehind(int capacity, int flushSize, Duration flushInterval,
+                                                            WriteBehindBuffer.OverflowPolicy policy) {
+        drainWriteBehind();
+        this.writeBehind = new WriteBehindBuffer(this, capacity, flushSize, flushInterval, policy);
+        return this.writeBehind;
+    }
 
-            System.out.println("--- Resultados da Tabela: " + table + " ---");
-            boolean foundResults = false;
+    /**
+     * @return The write-behind buffer, or null when inserts are written synchronously.
+     */
+    public WriteBehindBuffer getWriteBehind() {
+        return this.writeBehind;
+    }
 
-            // 5. Iterar sobre o ResultSet
-            while (resultSet.next()) {
-                foundResults = true;
-                // 6. Extrair os dados de cada coluna para a linha atual
-                int id = resultSet.getInt("id");
-                String nome = resultSet.getString("nome");
-                String email = resultSet.getString("email");
+    /**
+     * Flushes and stops the write-behind buffer, if any, so that later inserts are synchronous again.
+     * Subclasses call it at the start of {@link #disconnect()}.
+     */
+    protected synchronized void drainWriteBehind() {
+        WriteBehindBuffer buffer = this.writeBehind;
+        if (buffer != null) {
+            LOG.fine("Gravando as linhas pendentes do buffer de escrita...");
+            buffer.close();
+            this.writeBehind = null;
+        }
+    }
 
-                // 7. Exibir os dados formatados
-                System.out.printf("ID: %-5d | Nome: %-20s | Email: %s\n", id, nome, email);
-            }
+    /**
+     * Sets a driver property appended to MySQL URLs by {@link #connectionUrl()}.
+     * Properties already present in the URL given to the constructor are left untouched.
+     */
+    protected void setDriverProperty(String key, String value) {
+        synchronized (this.driverProperties) {
+            this.driverProperties.put(key, value);
+        }
+    }
+
+    /**
+     * @return The URL used to open connections: the configured URL plus any driver properties set on this instance.
+     */
+    protected String connectionUrl() {
+        return connectionUrl(this.url);
+    }
 
-            if (!foundResults) {
-                System.out.println("Nenhum registro encontrado na tabela.");
+    /**
+     * @return Another URL of the same database (e.g. a replica) plus the driver properties set on this instance.
+     */
+    protected String connectionUrl(String url) {
+        if (!isMySqlUrl(url)) {
+            return url;
+        }
+        String result = url;
+        synchronized (this.driverProperties) {
+            for (Map.Entry<String, String> property : this.driverProperties.entrySet()) {
+                result = withUrlProperty(result, property.getKey(), property.getValue());
             }
+        }
+        return result;
+    }
 
-            System.out.println("----------------------------------------");
-            return true;
+    /**
+     * @return The registry that validates and caches the metadata of the tables used by this client,
+     *         shared with every other client of the same database.
+     */
+    public SchemaRegistry getSchema() {
+        return this.schema;
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Falha ao executar o comando SELECT na tabela '" + table + "'.");
-            System.err.println("SQLState: " + e.getSQLState());
-            System.err.println("Error Code: " + e.getErrorCode());
-            System.err.println("Message: " + e.getMessage());
-            e.notifyAll(); // Importante para depuração
-            return false;
+    /**
+     * @return "INSERT INTO table (nome, email) VALUES (?, ?)", formatted once per table after the table is validated.
+     */
+    protected String insertSql(Connection connection, String table) throws SQLException {
+        return tableSql(connection, table, this.insertSqlByTable, "INSERT INTO %s (nome, email) VALUES (?, ?)");
+    }
+
+    /**
+     * Returns a table's metadata from the schema registry, validating (or creating) the table on first use.
+     * Subclasses whose connection may be read-only (a replica) override it to validate on a writable one.
+     */
+    protected SchemaRegistry.Table resolveTable(Connection connection, String table) throws SQLException {
+        return this.schema.table(connection, table);
+    }
+
+    /**
+     * Validates the table through the schema registry (a map lookup after the first use) and formats its SQL once.
+     */
+    private String tableSql(Connection connection, String table, Map<String, String> sqlByTable, String format) throws SQLException {
+        resolveTable(connection, table);
+        return sqlByTable.computeIfAbsent(table, t -> String.format(format, t));
+    }
+
+    /**
+     * Serves {@link #findByEmail} and {@link #findById} from memory, reading through to the database on a miss.
+     * Inserts made through this client invalidate the cached row with the same email.
+     * @param maxSize Maximum number of rows cached.
+     * @param ttl How long a row is served from memory before it is read again.
+     * @return The cache, for its hit/miss/eviction counters.
+     */
+    public UserCache enableUserCache(int maxSize, Duration ttl) {
+        this.userCache = new UserCache(maxSize, ttl);
+        return this.userCache;
+    }
+
+    /**
+     * Stops caching lookups and forgets every cached row.
+     */
+    public void disableUserCache() {
+        UserCache previous = this.userCache;
+        this.userCache = null;
+        if (previous != null) {
+            previous.clear();
         }
     }
 
+    /**
+     * @return The lookup cache, or null when lookups always hit the database.
+     */
+    public UserCache getUserCache() {
+        return this.userCache;
+    }
 
     /**
-     * Create inserts in any table that has 'nome' and 'email' columns.
-     * @param table The name of the table where data will be inserted (e.g., "usuarios").
-     * @param nome The user's name to be inserted.
-     * @param email The user's email to be inserted.
-     * @return true if the insert is successful, false otherwise.
+     * Traces every statement this client executes: per SQL shape counts and latency, the most recent
+     * executions slower than {@code slowThreshold}, and optionally their plans
+     * ({@link StatementTracer#setExplainSlow(boolean)}).
+     * @param slowThreshold Executions at least this long are kept as slow.
+     * @param slowCapacity How many recent slow executions are kept.
+     * @return The tracer, for its statistics and its JSON dump.
      */
-    @Override
-    public Boolean insert(String table, String nome, String email) {
-        if (!isConnected()) {
-            System.err.println("Não é possível inserir dados. A conexão com o banco de dados não está ativa.");
-            return false;
+    public StatementTracer enableTracing(Duration slowThreshold, int slowCapacity) {
+        this.tracer = new StatementTracer(slowThreshold, slowCapacity);
+        return this.tracer;
+    }
+
+    /**
+     * Stops tracing statements. The previous tracer keeps what it recorded.
+     */
+    public void disableTracing() {
+        this.tracer = null;
+    }
+
+    /**
+     * @return The statement tracer, or null when tracing is off.
+     */
+    public StatementTracer getTracer() {
+        return this.tracer;
+    }
+
+    /**
+     * Drops a cached row after it was written, so the next lookup reads it from the database.
+     */
+    protected void invalidateCached(String table, String email) {
+        UserCache cache = this.userCache;
+        if (cache != null) {
+            cache.invalidate(table, email);
+        }
+    }
+
+    /**
+     * Sends the duration, outcome and row count of every operation, and the time spent waiting
+     * for a connection, to {@code metrics}.
+     * @param metrics The metrics sink, e.g. an {@link org.db.metrics.InMemoryDbMetrics}; null turns measuring off.
+     */
+    public void setMetrics(IDbMetrics metrics) {
+        this.metrics = metrics == null ? NoOpDbMetrics.INSTANCE : metrics;
+    }
+
+    public IDbMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Records an operation that started at {@code startNanos} (a {@link System#nanoTime()} value).
+     */
+    protected final void record(Operation operation, long startNanos, long rows, boolean success) {
+        this.metrics.record(operation, System.nanoTime() - startNanos, rows, success);
+    }
+
+    /**
+     * Acquires a connection and records how long it took.
+     */
+    private Connection timedAcquire() throws SQLException {
+        return timedAcquire(false);
+    }
+
+    private Connection timedAcquire(boolean read) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = read ? acquireRead() : acquire();
+        this.metrics.recordAcquire(System.nanoTime() - start);
+        return connection;
+    }
+
+    /**
+     * Logs a failed statement as a warning, with the SQLState, error code and driver message.
+     * The message is only built when warnings are logged; the stack trace is logged at FINE.
+     */
+    protected static void logFailure(SQLException e, Supplier<String> message) {
+        if (LOG.isLoggable(Level.WARNING)) {
+            LOG.warning(message.get() + " SQLState: " + e.getSQLState() + " | Error Code: " + e.getErrorCode()
+                    + " | Message: " + e.getMessage());
         }
+        LOG.log(Level.FINE, "Detalhes da falha anterior", e);
+    }
 
-        String insertSQL = String.format("INSERT INTO %s (nome, email) VALUES (?, ?)", table);
+    /**
+     * Borrows the connection used by a single operation. The default implementation hands out
+     * the one connection opened by {@link #connect()}; pooled subclasses override it together
+     * with {@link #release(Connection)}.
+     * @return The connection to run the operation on.
+     * @throws SQLException if no connection can be obtained.
+     */
+    protected Connection acquire() throws SQLException {
+        return getConnection();
+    }
 
-        System.out.println("Preparando a inserção de dados na tabela: " + table);
+    /**
+     * Borrows the connection used by a read-only operation ({@code select}, {@code stream}, {@code findBy*}).
+     * Defaults to {@link #acquire()}; subclasses that spread reads across replicas override it.
+     * The connection is given back through {@link #release(Connection)}.
+     * @return The connection to run the read on.
+     * @throws SQLException if no connection can be obtained.
+     */
+    protected Connection acquireRead() throws SQLException {
+        return acquire();
+    }
 
-        try (PreparedStatement preparedStatement = this.connection.prepareStatement(insertSQL)) {
+    /**
+     * Gives back a connection obtained from {@link #acquire()} or {@link #acquireRead()}. Does nothing by default.
+     * @param connection The connection to give back.
+     */
+    protected void release(Connection connection) {
+    }
 
-            preparedStatement.setString(1, nome);
-            preparedStatement.setString(2, email);
+    /**
+     * Acquires a connection wrapped so that it is released by try-with-resources.
+     */
+    protected final Lease lease() throws SQLException {
+        Transaction current = this.transaction.get();
+        if (current != null) {
+            return new Lease(current.connection, false);
+        }
+        return new Lease(timedAcquire(), true);
+    }
 
-            int rowsAffected = preparedStatement.executeUpdate();
+    /**
+     * Like {@link #lease()}, for a read-only operation: outside a transaction the connection comes from {@link #acquireRead()}.
+     */
+    protected final Lease readLease() throws SQLException {
+        Transaction current = this.transaction.get();
+        if (current != null) {
+            return new Lease(current.connection, false);
+        }
+        return new Lease(timedAcquire(true), true);
+    }
 
-            if (rowsAffected > 0) {
-                System.out.println("Dados inseridos com sucesso! Linhas afetadas: " + rowsAffected);
-                return true;
+    /**
+     * A connection borrowed for the duration of one operation, or the calling thread's transaction connection.
+     */
+    protected final class Lease implements AutoCloseable {
+        private final Connection connection;
+        private final boolean owned;
+
+        private Lease(Connection connection, boolean owned) {
+            this.connection = connection;
+            this.owned = owned;
+        }
+
+        public Connection connection() {
+            return this.connection;
+        }
+
+        @Override
+        public void close() {
+            // A conexão de uma transação só é devolvida no commit/rollback.
+            if (this.owned) {
+                release(this.connection);
+            }
+        }
+    }
+
+    /**
+     * Obtains a prepared statement for the connection, from the statement cache when it is enabled.
+     * Closing the returned handle puts the statement back in the cache, or closes it otherwise.
+     */
+    protected final Prepared prepare(Connection connection, String sql) throws SQLException {
+        return prepare(connection, sql, Connection::prepareStatement);
+    }
+
+    /**
+     * Like {@link #prepare(Connection, String)}, for a forward-only, read-only statement that fetches rows incrementally.
+     * On MySQL this uses a server-side cursor when the URL sets {@code useCursorFetch=true},
+     * and Connector/J's row-by-row streaming mode ({@code Integer.MIN_VALUE} fetch size) otherwise.
+     * Other drivers get a regular positive fetch size.
+     */
+    protected final Prepared prepareStreaming(Connection connection, String sql) throws SQLException {
+        return prepare(connection, sql, (c, text) -> {
+            PreparedStatement preparedStatement = c.prepareStatement(text, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (isMySqlUrl(this.url) && !hasUrlProperty(connectionUrl(), "useCursorFetch", "true")) {
+                preparedStatement.setFetchSize(Integer.MIN_VALUE);
             } else {
-                System.err.println("A inserção falhou, nenhuma linha foi alterada.");
-                return false;
+                preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
             }
+            return preparedStatement;
+        });
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Falha ao executar o comando de inserção na tabela '" + table + "'.");
+    private Prepared prepare(Connection connection, String sql, StatementCache.Preparer preparer) throws SQLException {
+        StatementCache cache = this.statementCache;
+        PreparedStatement statement = cache == null
+                ? preparer.prepare(connection, sql)
+                : cache.take(connection, sql, preparer);
+        return new Prepared(cache, this.tracer, connection, sql, statement);
+    }
 
-            System.err.println("SQLState: " + e.getSQLState());
-            System.err.println("Error Code: " + e.getErrorCode());
-            System.err.println("Message: " + e.getMessage());
-            e.notify();
-            return false;
+    /**
+     * A prepared statement in use by one operation.
+     * Its {@code execute*} methods report each execution to the {@link StatementTracer} when tracing is enabled.
+     * A query is reported when the handle is closed, after its rows were read: close the result set first
+     * and pass the number of rows read to {@link #rows(long)}.
+     */
+    protected static final class Prepared implements AutoCloseable {
+        private final StatementCache cache;
+        private final StatementTracer tracer;
+        private final Connection connection;
+        private final String sql;
+        private final PreparedStatement statement;
+        private long queryStart = 0;
+        private long queryRows = 0;
+
+        private Prepared(StatementCache cache, StatementTracer tracer, Connection connection, String sql, PreparedStatement statement) {
+            this.cache = cache;
+            this.tracer = tracer;
+            this.connection = connection;
+            this.sql = sql;
+            this.statement = statement;
         }
-    }
 
+        public PreparedStatement statement() {
+            return this.statement;
+        }
 
+        public ResultSet executeQuery() throws SQLException {
+            if (this.tracer == null) {
+                return this.statement.executeQuery();
+            }
+            long start = System.nanoTime();
+            try {
+                ResultSet resultSet = this.statement.executeQuery();
+                this.queryStart = start;
+                this.queryRows = 0;
+                return resultSet;
+            } catch (SQLException e) {
+                this.tracer.record(this.sql, 1, System.nanoTime() - start, 0, false);
+                throw e;
+            }
+        }
 
-    @Override
-    public Boolean check() {
-        if (!isConnected()) {
-            System.err.println("Não é possível verificar as tabelas. A conexão não está ativa.");
-            return false;
+        /**
+         * Sets the number of rows read from the result of {@link #executeQuery()}, reported when the handle is closed.
+         */
+        public void rows(long rows) {
+            this.queryRows = rows;
         }
 
-        try (Statement statement = this.connection.createStatement()) {
-            String createTableSQL = "CREATE TABLE IF NOT EXISTS usuarios (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "nome VARCHAR(100) NOT NULL, " +
-                    "email VARCHAR(100) NOT NULL UNIQUE, " +
-                    "data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                    ")";
+        public int executeUpdate() throws SQLException {
+            if (this.tracer == null) {
+                return this.statement.executeUpdate();
+            }
+            long start = System.nanoTime();
+            boolean success = false;
+            int rows = 0;
+            try {
+                rows = this.statement.executeUpdate();
+                success = true;
+                return rows;
+            } finally {
+                this.tracer.record(this.sql, 1, System.nanoTime() - start, rows, success);
+            }
+        }
 
-            System.out.println("Verificando/Criando a tabela 'usuarios'...");
-            statement.execute(createTableSQL);
-            System.out.println("Tabela 'usuarios' verificada/criada com sucesso.");
-            return true;
+        public long executeLargeUpdate() throws SQLException {
+            if (this.tracer == null) {
+                return this.statement.executeLargeUpdate();
+            }
+            long start = System.nanoTime();
+            boolean success = false;
+            long rows = 0;
+            try {
+                rows = this.statement.executeLargeUpdate();
+                success = true;
+                return rows;
+            } finally {
+                this.tracer.record(this.sql, 1, System.nanoTime() - start, rows, success);
+            }
+        }
+
+        /**
+         * Runs the batch, reported as one execution per batched row.
+         */
+        public int[] executeBatch(int pending) throws SQLException {
+            if (this.tracer == null) {
+                return this.statement.executeBatch();
+            }
+            long start = System.nanoTime();
+            boolean success = false;
+            int[] counts = null;
+            try {
+                counts = this.statement.executeBatch();
+                success = true;
+                return counts;
+            } catch (BatchUpdateException e) {
+                counts = e.getUpdateCounts();
+                throw e;
+            } finally {
+                this.tracer.record(this.sql, pending, System.nanoTime() - start, affected(counts), success);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (this.queryStart != 0) {
+                    long nanos = System.nanoTime() - this.queryStart;
+                    this.queryStart = 0;
+                    if (this.tracer.record(this.sql, 1, nanos, this.queryRows, true)) {
+                        this.tracer.recordPlan(this.sql, explain());
+                    }
+                }
+            } finally {
+                if (this.cache == null) {
+                    this.statement.close();
+                } else {
+                    this.cache.giveBack(this.connection, this.sql, this.statement);
+                }
+            }
+        }
+
+        /**
+         * Runs {@code EXPLAIN} for the query on the same connection, with the parameters it was executed with
+         * on MySQL and with NULL parameters on other drivers.
+         * @return The plan, one line per row as {@code column=value} pairs, or why it could not be read.
+         */
+        private String explain() {
+            try (PreparedStatement explain = this.connection.prepareStatement("EXPLAIN " + this.sql)) {
+                int parameters = explain.getParameterMetaData().getParameterCount();
+                ParameterBindings bindings = this.statement.isWrapperFor(JdbcPreparedStatement.class)
+                        ? this.statement.unwrap(JdbcPreparedStatement.class).getParameterBindings()
+                        : null;
+                for (int i = 1; i <= parameters; i++) {
+                    if (bindings == null || bindings.isNull(i)) {
+                        explain.setNull(i, Types.VARCHAR);
+                    } else {
+                        explain.setObject(i, bindings.getObject(i));
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    while (resultSet.next()) {
+                        if (!plan.isEmpty()) {
+                            plan.append('\n');
+                        }
+                        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                            plan.append(column == 1 ? "" : ", ")
+                                    .append(metaData.getColumnLabel(column)).append('=').append(resultSet.getString(column));
+                        }
+                    }
+                }
+                return plan.toString();
+            } catch (SQLException e) {
+                LOG.fine(() -> "Não foi possível obter o plano de " + this.sql + ": " + e.getMessage());
+                return "EXPLAIN falhou: " + e.getMessage();
+            }
+        }
+
+        private static long affected(int[] counts) {
+            long rows = 0;
+            if (counts != null) {
+                for (int count : counts) {
+                    rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Checks if the connection is currently active and valid.
+     * @return true if the connection is not null and not closed, false otherwise.
+     */
+    public boolean isConnected() {
+        try {
+            return this.connection != null && !this.connection.isClosed();
         } catch (SQLException e) {
-            System.err.println("Falha ao verificar/criar a tabela 'usuarios'.");
-            e.notify();
+            LOG.warning(() -> "Error checking connection status: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Selects and displays all records from a table.
+     * Assumes the table has at least 'id', 'nome', and 'email' columns.
+     * Rows are streamed through {@link #select(String, Consumer)}, so the table is never held in memory.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @return true if the select is successful and prints results, false if an error occurs.
+     */
+    @Override
+    public Boolean select(String table) {
+        return printRows(table, handler -> select(table, handler));
+    }
+
+    /**
+     * Prints the rows a {@code select} delivers to standard output, with a header and a footer.
+     * Shared by the {@link IDbConnection#select(String)} implementations.
+     * @param table The table name, for the header.
+     * @param select Runs the select with the given row handler and returns its result.
+     * @return The result of the select.
+     */
+    static Boolean printRows(String table, Function<Consumer<UserRow>, Boolean> select) {
+        LOG.fine(() -> "Executando busca de dados na tabela: " + table);
+        System.out.println("--- Resultados da Tabela: " + table + " ---");
+
+        long[] found = {0};
+        Boolean success = select.apply(row -> {
+            found[0]++;
+            System.out.printf("ID: %-5d | Nome: %-20s | Email: %s\n", row.id(), row.nome(), row.email());
+        });
+
+        if (success && found[0] == 0) {
+            System.out.println("Nenhum registro encontrado na tabela.");
+        }
+
+        System.out.println("----------------------------------------");
+        return success;
+    }
+
+    /**
+     * Streams every row of a table to a callback, one row at a time.
+     * With a single {@link DbConnection}, the handler must not run other statements on the same client
+     * while the stream is open, because MySQL keeps the connection busy until the last row is read.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param handler Called once per row, in the order returned by the database.
+     * @return true if every row was read, false if an error occurs.
+     */
+    @Override
+    public Boolean select(String table, Consumer<UserRow> handler) {
+        return selectMapped(table, RowMappers.USER_ROW, handler);
+    }
+
+    /**
+     * Streams chosen columns of every row of any table to a callback, one row at a time.
+     * The columns are validated against the table's cached metadata before the query runs.
+     * @param table The name of the table to query.
+     * @param columns The columns to read, matched case-insensitively.
+     * @param handler Called once per row with the values keyed by the names in {@code columns}, in that order.
+     * @return true if every row was read, false if an error occurs.
+     * @throws IllegalArgumentException if the table has no column with one of the names.
+     */
+    @Override
+    public Boolean select(String table, List<String> columns, Consumer<Map<String, Object>> handler) {
+        return selectMapped(table, RowMappers.columns(columns), handler);
+    }
+
+    /**
+     * Streams every row of a table, mapped by {@code mapper}, to a callback.
+     * The mapper's columns are validated against the table's cached metadata, its column indexes are resolved
+     * once per query, and each row is read by index; a reusing mapper such as {@link RowMappers#MUTABLE_USUARIO}
+     * allocates no row objects at all.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param mapper Maps each row, e.g. {@link RowMappers#USUARIO}.
+     * @param handler Called once per row, in the order returned by the database.
+     * @return true if every row was read, false if an error occurs.
+     * @throws IllegalArgumentException if the table has no column with one of the mapper's names.
+     */
+    @Override
+    public <T> Boolean select(String table, RowMapper<T> mapper, Consumer<? super T> handler) {
+        return selectMapped(table, mapper, handler);
+    }
+
+    private <T> Boolean selectMapped(String table, RowMapper<T> mapper, Consumer<? super T> handler) {
+        if (!isConnected()) {
+            LOG.warning("Não é possível buscar dados. A conexão com o banco de dados não está ativa.");
+            return false;
+        }
+
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Lease lease = readLease()) {
+            String sql = columnSql(lease.connection(), "SELECT", table, mapper.columns());
+            try (Prepared prepared = prepareStreaming(lease.connection(), sql);
+                 ResultSet resultSet = prepared.executeQuery()) {
+
+                RowMapper.Reader<T> reader = mapper.bind(resultSet);
+                while (resultSet.next()) {
+                    handler.accept(reader.read(resultSet));
+                    rows++;
+                }
+                prepared.rows(rows);
+            }
+            record(Operation.SELECT, start, rows, true);
+            return true;
+
+        } catch (SQLException e) {
+            recordFailure(e);
+            record(Operation.SELECT, start, rows, false);
+            logFailure(e, () -> "Falha ao executar o comando SELECT na tabela '" + table + "'.");
+            return false;
+        }
+    }
+
+    /**
+     * Returns a lazy stream over every row of a table. Rows are fetched as the stream is consumed,
+     * and the statement, result set and connection are released when the stream is closed,
+     * so it must be used in a try-with-resources block.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @return The rows of the table, or an empty stream if the query cannot be started.
+     * @throws RuntimeException from the stream's terminal operation if reading a row fails.
+     */
+    @Override
+    public Stream<UserRow> stream(String table) {
+        return streamMapped(table, RowMappers.USER_ROW);
+    }
+
+    /**
+     * Returns a lazy stream over every row of a table, mapped by {@code mapper}. Rows are fetched as the stream
+     * is consumed, and the database resources are released when the stream is closed.
+     * With a reusing mapper such as {@link RowMappers#MUTABLE_USUARIO}, every element is the same object,
+     * so each one must be consumed (or copied) before the next is read: no {@code sorted}, {@code toList}, etc.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param mapper Maps each row, e.g. {@link RowMappers#USUARIO}.
+     * @return The mapped rows, or an empty stream if the query cannot be started.
+     * @throws IllegalArgumentException if the table has no column with one of the mapper's names.
+     */
+    @Override
+    public <T> Stream<T> stream(String table, RowMapper<T> mapper) {
+        return streamMapped(table, mapper);
+    }
+
+    private <T> Stream<T> streamMapped(String table, RowMapper<T> mapper) {
+        if (!isConnected()) {
+            LOG.warning("Não é possível buscar dados. A conexão com o banco de dados não está ativa.");
+            return Stream.empty();
+        }
+
+        long start = System.nanoTime();
+        Lease lease = null;
+        Prepared prepared = null;
+        try {
+            lease = readLease();
+            prepared = prepareStreaming(lease.connection(), columnSql(lease.connection(), "SELECT", table, mapper.columns()));
+            ResultSet resultSet = prepared.executeQuery();
+            RowMapper.Reader<T> reader = mapper.bind(resultSet);
+
+            // Linhas lidas e falha de leitura, registradas nas métricas quando o stream é fechado.
+            long[] read = {0};
+            boolean[] failed = {false};
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!resultSet.next()) {
+                            return false;
+                        }
+                        read[0]++;
+                        action.accept(reader.read(resultSet));
+                        return true;
+                    } catch (SQLException e) {
+                        failed[0] = true;
+                        throw new RuntimeException("Could not read the next row from table '" + table + "'", e);
+                    }
+                }
+            };
+
+            Lease openLease = lease;
+            Prepared openPrepared = prepared;
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                record(Operation.SELECT, start, read[0], !failed[0]);
+                openPrepared.rows(read[0]);
+                try (openLease; openPrepared; resultSet) {
+                    // Fecha ResultSet, PreparedStatement e devolve a conexão, nessa ordem.
+                } catch (SQLException e) {
+                    LOG.warning(() -> "Falha ao fechar o stream da tabela '" + table + "': " + e.getMessage());
+                }
+            });
+
+        } catch (SQLException e) {
+            recordFailure(e);
+            record(Operation.SELECT, start, 0, false);
+            logFailure(e, () -> "Falha ao executar o comando SELECT na tabela '" + table + "'.");
+            closeQuietly(prepared);
+            if (lease != null) {
+                lease.close();
+            }
+            return Stream.empty();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+            // O erro original já foi registrado; falhas ao fechar não acrescentam nada.
+        }
+    }
+
+    /**
+     * Finds the row with the given email, from the lookup cache when it is enabled.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param email The email to look for.
+     * @return The row, or empty if there is none or the query fails.
+     */
+    @Override
+    public Optional<UserRow> findByEmail(String table, String email) {
+        UserCache cache = this.userCache;
+        if (cache != null) {
+            UserRow cached = cache.getByEmail(table, email);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        return find(table, this.findByEmailSqlByTable, "SELECT id, nome, email FROM %s WHERE email = ?",
+                preparedStatement -> preparedStatement.setString(1, email));
+    }
+
+    /**
+     * Finds the row with the given id, from the lookup cache when it is enabled.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param id The id to look for.
+     * @return The row, or empty if there is none or the query fails.
+     */
+    @Override
+    public Optional<UserRow> findById(String table, int id) {
+        UserCache cache = this.userCache;
+        if (cache != null) {
+            UserRow cached = cache.getById(table, id);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        return find(table, this.findByIdSqlByTable, "SELECT id, nome, email FROM %s WHERE id = ?",
+                preparedStatement -> preparedStatement.setInt(1, id));
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement preparedStatement) throws SQLException;
+    }
+
+    private Optional<UserRow> find(String table, Map<String, String> sqlByTable, String format, Binder binder) {
+        if (!isConnected()) {
+            LOG.warning("Não é possível buscar dados. A conexão com o banco de dados não está ativa.");
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        try (Lease lease = readLease();
+             Prepared prepared = prepare(lease.connection(), tableSql(lease.connection(), table, sqlByTable, format))) {
+
+            PreparedStatement preparedStatement = prepared.statement();
+            binder.bind(preparedStatement);
+
+            try (ResultSet resultSet = prepared.executeQuery()) {
+                if (!resultSet.next()) {
+                    record(Operation.FIND, start, 0, true);
+                    return Optional.empty();
+                }
+                UserRow row = new UserRow(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3));
+                prepared.rows(1);
+                UserCache cache = this.userCache;
+                if (cache != null) {
+                    cache.put(table, row);
+                }
+                record(Operation.FIND, start, 1, true);
+                return Optional.of(row);
+            }
+
+        } catch (SQLException e) {
+            recordFailure(e);
+            record(Operation.FIND, start, 0, false);
+            logFailure(e, () -> "Falha ao buscar registro na tabela '" + table + "'.");
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Create inserts in any table that has 'nome' and 'email' columns.
+     * When a write-behind buffer is enabled, the row is only queued, unless the calling thread is inside a transaction.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param nome The user's name to be inserted.
+     * @param email The user's email to be inserted.
+     * @return true if the insert is successful (or the row was queued), false otherwise.
+     */
+    @Override
+    public Boolean insert(String table, String nome, String email) {
+        WriteBehindBuffer buffer = this.writeBehind;
+        if (buffer != null && this.transaction.get() == null) {
+            return buffer.enqueue(table, nome, email);
+        }
+        return insertDirect(table, nome, email);
+    }
+
+    /**
+     * Inserts one row synchronously, bypassing the write-behind buffer.
+     * @return true if the insert is successful, false otherwise.
+     */
+    protected Boolean insertDirect(String table, String nome, String email) {
+        if (!isConnected()) {
+            LOG.warning("Não é possível inserir dados. A conexão com o banco de dados não está ativa.");
+            return false;
+        }
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Preparando a inserção de dados na tabela: " + table);
+        }
+
+        long start = System.nanoTime();
+        try (Lease lease = lease();
+             Prepared prepared = prepare(lease.connection(), insertSql(lease.connection(), table))) {
+
+            PreparedStatement preparedStatement = prepared.statement();
+
+            preparedStatement.setString(1, nome);
+            preparedStatement.setString(2, email);
+
+            int rowsAffected = prepared.executeUpdate();
+            invalidateCached(table, email);
+            record(Operation.INSERT, start, rowsAffected, rowsAffected > 0);
+
+            if (rowsAffected > 0) {
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.fine("Dados inseridos com sucesso! Linhas afetadas: " + rowsAffected);
+                }
+                return true;
+            } else {
+                LOG.warning("A inserção falhou, nenhuma linha foi alterada.");
+                return false;
+            }
+
+        } catch (SQLException e) {
+            recordFailure(e);
+            record(Operation.INSERT, start, 0, false);
+            logFailure(e, () -> "Falha ao executar o comando de inserção na tabela '" + table + "'.");
+            return false;
+        }
+    }
+
+    /**
+     * Inserts one row into any table, synchronously.
+     * The columns are validated against the table's cached metadata, and each value is bound with
+     * {@link PreparedStatement#setObject(int, Object)}.
+     * @param table The name of the table where data will be inserted.
+     * @param values The column values, matched case-insensitively; columns left out take their defaults.
+     * @return true if the insert is successful, false otherwise.
+     * @throws IllegalArgumentException if the table has no column with one of the names.
+     */
+    @Override
+    public Boolean insert(String table, Map<String, ?> values) {
+        if (!isConnected()) {
+            LOG.warning("Não é possível inserir dados. A conexão com o banco de dados não está ativa.");
+            return false;
+        }
+
+        long start = System.nanoTime();
+        List<String> columns = new ArrayList<>(values.keySet());
+        try (Lease lease = lease()) {
+            String sql = columnSql(lease.connection(), "INSERT", table, columns);
+            int rowsAffected;
+            try (Prepared prepared = prepare(lease.connection(), sql)) {
+                PreparedStatement preparedStatement = prepared.statement();
+                for (int i = 0; i < columns.size(); i++) {
+                    preparedStatement.setObject(i + 1, values.get(columns.get(i)));
+                }
+                rowsAffected = prepared.executeUpdate();
+            }
+            for (Map.Entry<String, ?> value : values.entrySet()) {
+                if (value.getKey().equalsIgnoreCase("email") && value.getValue() instanceof String email) {
+                    invalidateCached(table, email);
+                }
+            }
+            record(Operation.INSERT, start, rowsAffected, rowsAffected > 0);
+            return rowsAffected > 0;
+
+        } catch (SQLException e) {
+            recordFailure(e);
+            record(Operation.INSERT, start, 0, false);
+            logFailure(e, () -> "Falha ao executar o comando de inserção na tabela '" + table + "'.");
+            return false;
+        }
+    }
+
+    /**
+     * @return "INSERT INTO table (a, b) VALUES (?, ?)" or "SELECT a, b FROM table" with the column names as the
+     *         database stores them, formatted once per table and column list.
+     */
+    private String columnSql(Connection connection, String verb, String table, List<String> names) throws SQLException {
+        String key = verb + ' ' + table + ' ' + String.join(",", names).toLowerCase(Locale.ROOT);
+        String cached = this.columnSqlByKey.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<SchemaRegistry.Column> columns = resolveTable(connection, table).columns(names);
+        StringBuilder list = new StringBuilder();
+        for (SchemaRegistry.Column column : columns) {
+            list.append(list.isEmpty() ? "" : ", ").append(column.name());
+        }
+        String sql = verb.equals("INSERT")
+                ? "INSERT INTO " + table + " (" + list + ") VALUES (" + "?, ".repeat(columns.size() - 1) + "?)"
+                : "SELECT " + list + " FROM " + table;
+        this.columnSqlByKey.putIfAbsent(key, sql);
+        return sql;
+    }
+
+    /**
+     * Inserts many rows reusing one PreparedStatement, flushing them with {@code executeBatch}
+     * every {@link #getBatchSize()} rows. A failing batch does not stop the remaining ones.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param rows The rows to insert, as (nome, email) pairs; a {@link RowStagingBuffer} is bound straight from its segments.
+     * @return One result per row, in iteration order. If the insert stops early (e.g. the connection drops), the rows
+     *         not attempted are reported as {@link Statement#EXECUTE_FAILED} when the input size is known
+     *         (a {@link Collection} or a {@link RowStagingBuffer}).
+     */
+    @Override
+    public int[] insertAll(String table, Iterable<? extends Map.Entry<String, String>> rows) {
+        if (!isConnected()) {
+            LOG.warning("Não é possível inserir dados. A conexão com o banco de dados não está ativa.");
+            return new int[0];
+        }
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Preparando a inserção em lotes de " + this.batchSize + " na tabela: " + table);
+        }
+
+        long start = System.nanoTime();
+        BatchResults results = new BatchResults(this.batchSize);
+        boolean success = true;
+
+        try (Lease lease = lease()) {
+            insertBatch(lease.connection(), table, rows, results);
+        } catch (SQLException e) {
+            recordFailure(e);
+            success = false;
+            logFailure(e, () -> "Falha ao executar a inserção em lotes na tabela '" + table + "'.");
+        }
+
+        int[] counts = results.toArray();
+        int expected = sizeOf(rows);
+        if (counts.length < expected) {
+            int reported = counts.length;
+            counts = Arrays.copyOf(counts, expected);
+            Arrays.fill(counts, reported, expected, Statement.EXECUTE_FAILED);
+        }
+        int inserted = 0;
+        for (int count : counts) {
+            if (count != Statement.EXECUTE_FAILED) {
+                inserted++;
+            }
+        }
+        record(Operation.INSERT_ALL, start, inserted, success && inserted == counts.length);
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Inserção em lotes concluída. Linhas processadas: " + counts.length);
+        }
+        return counts;
+    }
+
+    /**
+     * @return The number of rows of a sized input, or -1 when it can only be iterated.
+     */
+    private static int sizeOf(Iterable<?> rows) {
+        if (rows instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (rows instanceof RowStagingBuffer staged) {
+            return staged.size();
+        }
+        if (rows instanceof RowStagingBuffer.Range range) {
+            return range.size();
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts rows on the given connection in batches of {@link #getBatchSize()}, without touching
+     * its auto-commit mode, so callers can group several calls into one transaction.
+     * @param connection The connection to run the batches on.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param rows The rows to insert, as (nome, email) pairs.
+     * @param results Receives one result per row as each batch completes.
+     * @throws SQLException if a batch cannot be sent at all; rows already reported stay in {@code results}.
+     */
+    protected void insertBatch(Connection connection, String table, Iterable<? extends Map.Entry<String, String>> rows,
+                               BatchResults results) throws SQLException {
+        if (rows instanceof RowStagingBuffer staged) {
+            rows = staged.range(0, staged.size());
+        }
+        // Linhas em staging são lidas direto dos segmentos pelo cursor, sem criar uma entrada por linha.
+        RowStagingBuffer.Cursor cursor = rows instanceof RowStagingBuffer.Range range ? range.cursor() : null;
+        Iterator<? extends Map.Entry<String, String>> entries = cursor == null ? rows.iterator() : null;
+
+        try (Prepared prepared = prepare(connection, insertSql(connection, table))) {
+            PreparedStatement preparedStatement = prepared.statement();
+            int pending = 0;
+
+            while (cursor != null ? cursor.next() : entries.hasNext()) {
+                String nome;
+                String email;
+                if (cursor != null) {
+                    nome = cursor.nome();
+                    email = cursor.email();
+                } else {
+                    Map.Entry<String, String> row = entries.next();
+                    nome = row.getKey();
+                    email = row.getValue();
+                }
+                preparedStatement.setString(1, nome);
+                preparedStatement.setString(2, email);
+                preparedStatement.addBatch();
+                invalidateCached(table, email);
+
+                if (++pending == this.batchSize) {
+                    results.add(executeBatch(prepared, pending));
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                results.add(executeBatch(prepared, pending));
+            }
+        }
+    }
+
+    /**
+     * Sends the pending batch and returns one result per row. When the driver aborts the batch,
+     * the rows it did not report on are marked as {@link Statement#EXECUTE_FAILED}.
+     */
+    private int[] executeBatch(Prepared prepared, int pending) throws SQLException {
+        int[] counts;
+        try {
+            counts = prepared.executeBatch(pending);
+        } catch (BatchUpdateException e) {
+            recordFailure(e);
+            logFailure(e, () -> "Falha em parte do lote.");
+            counts = e.getUpdateCounts() == null ? new int[0] : e.getUpdateCounts();
+        } finally {
+            prepared.statement().clearBatch();
+        }
+
+        if (counts.length < pending) {
+            int reported = counts.length;
+            counts = Arrays.copyOf(counts, pending);
+            Arrays.fill(counts, reported, pending, Statement.EXECUTE_FAILED);
+        }
+        return counts;
+    }
+
+    /**
+     * Growable list of per-row batch results.
+     */
+    protected static final class BatchResults {
+        private int[] counts;
+        private int size = 0;
+
+        public BatchResults(int initialCapacity) {
+            this.counts = new int[Math.max(1, initialCapacity)];
+        }
+
+        public void add(int[] batch) {
+            if (this.size + batch.length > this.counts.length) {
+                this.counts = Arrays.copyOf(this.counts, Math.max(this.counts.length * 2, this.size + batch.length));
+            }
+            System.arraycopy(batch, 0, this.counts, this.size, batch.length);
+            this.size += batch.length;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public int[] toArray() {
+            return Arrays.copyOf(this.counts, this.size);
+        }
+    }
+
+    /**
+     * How {@link #writeAll} treats rows whose email already exists.
+     */
+    private enum DuplicateMode {
+        IGNORE,
+        UPDATE
+    }
+
+    /**
+     * The "Records: N  Duplicates: D  Warnings: W" summary MySQL returns for multi-row inserts.
+     */
+    private static final Pattern INSERT_INFO = Pattern.compile("Records:\\s*(\\d+)\\s+Duplicates:\\s*(\\d+)");
+
+    /**
+     * Inserts or updates rows in batches of {@link #getBatchSize()}, each sent as one multi-row
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE nome = VALUES(nome)}.
+     * A batch that fails is reported with all its rows as failed; the remaining batches still run.
+     * @see IDbConnection#upsert(String, Iterable)
+     */
+    @Override
+    public List<WriteCounts> upsert(String table, Iterable<? extends Map.Entry<String, String>> rows) {
+        return writeAll(table, rows, DuplicateMode.UPDATE);
+    }
+
+    /**
+     * Inserts rows in batches of {@link #getBatchSize()}, each sent as one multi-row {@code INSERT IGNORE}.
+     * A batch that fails is reported with all its rows as failed; the remaining batches still run.
+     * @see IDbConnection#insertIgnore(String, Iterable)
+     */
+    @Override
+    public List<WriteCounts> insertIgnore(String table, Iterable<? extends Map.Entry<String, String>> rows) {
+        return writeAll(table, rows, DuplicateMode.IGNORE);
+    }
+
+    /**
+     * Sends the rows in multi-row batches. When the write stops early (no connection, or a failure before or
+     * between batches), the rows not sent are reported in a trailing batch with all its rows failed, so an empty
+     * result always means there was nothing to write.
+     */
+    private List<WriteCounts> writeAll(String table, Iterable<? extends Map.Entry<String, String>> rows, DuplicateMode mode) {
+        long start = System.nanoTime();
+        List<WriteCounts> batches = new ArrayList<>();
+        List<Map.Entry<String, String>> pending = new ArrayList<>(this.batchSize);
+        Iterator<? extends Map.Entry<String, String>> iterator = rows.iterator();
+        boolean completed = false;
+
+        if (!isConnected()) {
+            LOG.warning("Não é possível inserir dados. A conexão com o banco de dados não está ativa.");
+        } else {
+            try (Lease lease = lease()) {
+                resolveTable(lease.connection(), table);
+                while (iterator.hasNext()) {
+                    Map.Entry<String, String> row = iterator.next();
+                    pending.add(row);
+                    invalidateCached(table, row.getValue());
+                    if (pending.size() == this.batchSize) {
+                        batches.add(writeBatch(lease.connection(), table, mode, pending));
+                        pending.clear();
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    batches.add(writeBatch(lease.connection(), table, mode, pending));
+                    pending.clear();
+                }
+                completed = true;
+            } catch (SQLException e) {
+                recordFailure(e);
+                logFailure(e, () -> "Falha ao preparar a gravação em lotes na tabela '" + table + "'.");
+            }
+        }
+
+        if (!completed) {
+            int notSent = unsent(rows, iterator, WriteCounts.total(batches).rows(), pending.size());
+            if (notSent > 0) {
+                batches.add(new WriteCounts(notSent, 0, 0, 0, notSent));
+            }
+        }
+
+        WriteCounts total = WriteCounts.total(batches);
+        record(mode == DuplicateMode.IGNORE ? Operation.INSERT_IGNORE : Operation.UPSERT, start,
+                total.inserted() + total.updated(), completed && total.failed() == 0);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Gravação em lotes concluída na tabela " + table + ": " + total);
+        }
+        return batches;
+    }
+
+    /**
+     * @return The rows of an interrupted write that were never sent: from the input size when it is known,
+     *         otherwise the rows read but not sent plus the rows left in the iterator.
+     */
+    private static int unsent(Iterable<?> rows, Iterator<?> iterator, int sent, int read) {
+        int size = sizeOf(rows);
+        if (size >= 0) {
+            return size - sent;
+        }
+        int left = read;
+        while (iterator.hasNext()) {
+            iterator.next();
+            left++;
+        }
+        return left;
+    }
+
+    private WriteCounts writeBatch(Connection connection, String table, DuplicateMode mode, List<Map.Entry<String, String>> rows) {
+        int size = rows.size();
+        try (Prepared prepared = prepare(connection, multiRowSql(table, mode, size))) {
+            PreparedStatement preparedStatement = prepared.statement();
+            int index = 1;
+            for (Map.Entry<String, String> row : rows) {
+                preparedStatement.setString(index++, row.getKey());
+                preparedStatement.setString(index++, row.getValue());
+            }
+            long affected = prepared.executeLargeUpdate();
+            return counts(mode, size, affected, serverInfo(preparedStatement));
+        } catch (SQLException e) {
+            recordFailure(e);
+            logFailure(e, () -> "Falha ao gravar um lote de " + size + " linhas na tabela '" + table + "'.");
+            return new WriteCounts(size, 0, 0, 0, size);
+        }
+    }
+
+    /**
+     * Splits the affected-row count of a multi-row insert into inserted, updated and unchanged rows.
+     * MySQL counts 1 per inserted row and 2 per updated row; unchanged rows count 1 by default
+     * (Connector/J sets CLIENT_FOUND_ROWS) and 0 with {@code useAffectedRows=true}. The number of rows
+     * that hit an existing email comes from the statement's "Duplicates" summary. Without that summary
+     * (non-MySQL drivers), unchanged rows are indistinguishable from inserted ones and are counted as inserted.
+     */
+    private WriteCounts counts(DuplicateMode mode, int rows, long affected, String info) {
+        if (mode == DuplicateMode.IGNORE) {
+            int inserted = (int) Math.min(rows, affected);
+            return new WriteCounts(rows, inserted, 0, rows - inserted, 0);
+        }
+
+        Matcher matcher = info == null ? null : INSERT_INFO.matcher(info);
+        if (matcher == null || !matcher.find()) {
+            int updated = (int) Math.max(0, Math.min(rows, affected - rows));
+            return new WriteCounts(rows, rows - updated, updated, 0, 0);
+        }
+
+        int duplicates = Integer.parseInt(matcher.group(2));
+        int inserted = rows - duplicates;
+        long changes = affected - inserted;
+        int updated = (int) (hasUrlProperty(connectionUrl(), "useAffectedRows", "true") ? changes / 2 : changes - duplicates);
+        updated = Math.max(0, Math.min(duplicates, updated));
+        return new WriteCounts(rows, inserted, updated, duplicates - updated, 0);
+    }
+
+    /**
+     * @return The server's summary of the last statement (e.g. "Records: 3  Duplicates: 1  Warnings: 0"),
+     *         or null when the driver is not Connector/J.
+     */
+    private String serverInfo(Statement statement) {
+        if (!isMySqlUrl(this.url)) {
+            return null;
+        }
+        try {
+            if (statement.isWrapperFor(JdbcStatement.class)) {
+                ResultSetInternalMethods result = statement.unwrap(JdbcStatement.class).getResultSetInternal();
+                return result == null ? null : result.getServerInfo();
+            }
+        } catch (SQLException ignored) {
+            // Sem resumo do servidor; as contagens usam só as linhas afetadas.
+        }
+        return null;
+    }
+
+    /**
+     * @return "INSERT [IGNORE] INTO table (nome, email) VALUES (?, ?), ... [ON DUPLICATE KEY UPDATE ...]" with
+     *         {@code rows} value lists, formatted once per table, mode and size.
+     */
+    private String multiRowSql(String table, DuplicateMode mode, int rows) {
+        return this.multiRowSqlByKey.computeIfAbsent(mode + ":" + table + ":" + rows, key -> {
+            StringBuilder sql = new StringBuilder(mode == DuplicateMode.IGNORE ? "INSERT IGNORE INTO " : "INSERT INTO ")
+                    .append(table).append(" (nome, email) VALUES ");
+            for (int i = 0; i < rows; i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+            }
+            if (mode == DuplicateMode.UPDATE) {
+                sql.append(" ON DUPLICATE KEY UPDATE nome = VALUES(nome)");
+            }
+            return sql.toString();
+        });
+    }
+
+    /**
+     * Appends a driver property to a JDBC URL, unless the URL already sets it explicitly.
+     * @param url The JDBC URL.
+     * @param key The driver property name (e.g., "rewriteBatchedStatements").
+     * @param value The property value.
+     * @return The URL with the property appended to its query string.
+     */
+    protected static String withUrlProperty(String url, String key, String value) {
+        if (urlProperty(url, key) != null) {
+            return url;
+        }
+        return url + (url.indexOf('?') < 0 ? "?" : "&") + key + "=" + value;
+    }
+
+    /**
+     * @return true if the JDBC URL sets the driver property to the given value (case-insensitive).
+     */
+    protected static boolean hasUrlProperty(String url, String key, String value) {
+        return value.equalsIgnoreCase(urlProperty(url, key));
+    }
+
+    /**
+     * @return true if the URL targets MySQL Connector/J.
+     */
+    protected static boolean isMySqlUrl(String url) {
+        return url != null && url.startsWith("jdbc:mysql:");
+    }
+
+    /**
+     * @return The value of a driver property in the URL's query string, "" if it has no value, or null if absent.
+     */
+    private static String urlProperty(String url, String key) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String pair : url.substring(query + 1).split("&")) {
+            if (pair.regionMatches(true, 0, key, 0, key.length())) {
+                if (pair.length() == key.length()) {
+                    return "";
+                }
+                if (pair.charAt(key.length()) == '=') {
+                    return pair.substring(key.length() + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes sure the 'usuarios' table exists, creating it on first use, through the process-wide
+     * {@link SchemaRegistry}. Only the first call per database runs the metadata lookup (and the DDL when
+     * the table is missing); later calls, from this or any other client, are answered from memory.
+     * Other tables are validated the same way on their first use, so calling this is optional,
+     * except before a transaction's first write on a new database, because MySQL commits implicitly on DDL.
+     * @return true if the table exists or was created, false otherwise.
+     */
+    @Override
+    public Boolean check() {
+        return check("usuarios");
+    }
+
+    /**
+     * Makes sure a table exists, creating it from its {@link SchemaRegistry#define definition} on first use,
+     * the same way as {@link #check()} does for 'usuarios'.
+     * @param table The table name.
+     * @return true if the table exists or was created, false otherwise (e.g. it is missing and has no definition).
+     */
+    public Boolean check(String table) {
+        if (!isConnected()) {
+            LOG.warning("Não é possível verificar as tabelas. A conexão não está ativa.");
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try (Lease lease = lease()) {
+            SchemaRegistry.Table resolved = resolveTable(lease.connection(), table);
+            record(Operation.CHECK, start, 0, true);
+            LOG.fine(() -> "Tabela '" + table + "' verificada: " + resolved);
+            return true;
+        } catch (SQLException e) {
+            recordFailure(e);
+            record(Operation.CHECK, start, 0, false);
+            logFailure(e, () -> "Falha ao verificar/criar a tabela '" + table + "'.");
+            return false;
+        }
+    }
+
+    // --- Transações ---
+
+    /**
+     * Starts a transaction bound to the calling thread. Until {@link #commit()} or {@link #rollback()},
+     * every operation this thread runs on this client uses the same connection with auto-commit disabled.
+     * @return true if the transaction started, false if one is already active or no connection is available.
+     */
+    @Override
+    public Boolean begin() {
+        if (this.transaction.get() != null) {
+            LOG.warning("Já existe uma transação ativa nesta thread.");
+            return false;
+        }
+        if (!isConnected()) {
+            LOG.warning("Não é possível iniciar a transação. A conexão com o banco de dados não está ativa.");
+            return false;
+        }
+
+        Connection connection = null;
+        try {
+            connection = timedAcquire();
+            connection.setAutoCommit(false);
+            this.transaction.set(new Transaction(connection));
+            return true;
+        } catch (SQLException e) {
+            logFailure(e, () -> "Falha ao iniciar a transação.");
+            if (connection != null) {
+                release(connection);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Commits the calling thread's transaction and restores auto-commit.
+     * @return true if the commit succeeded, false if there is no transaction or the commit failed (the work is rolled back).
+     */
+    @Override
+    public Boolean commit() {
+        try {
+            commitOrThrow();
+            return true;
+        } catch (SQLException e) {
+            logFailure(e, () -> "Falha ao confirmar a transação.");
+            return false;
+        }
+    }
+
+    /**
+     * Rolls back the calling thread's transaction and restores auto-commit.
+     * @return true if the rollback succeeded, false if there is no transaction or the rollback failed.
+     */
+    @Override
+    public Boolean rollback() {
+        Transaction current = this.transaction.get();
+        if (current == null) {
+            LOG.warning("Nenhuma transação ativa nesta thread.");
+            return false;
+        }
+        try {
+            current.connection.rollback();
+            return true;
+        } catch (SQLException e) {
+            logFailure(e, () -> "Falha ao desfazer a transação.");
+            return false;
+        } finally {
+            end(current);
+        }
+    }
+
+    /**
+     * Runs {@code work} in a transaction and commits it. If the database reports a deadlock (error 1213)
+     * or a serialization failure (SQLState 40001), whether from an operation inside {@code work} or from
+     * the commit, the transaction is rolled back and {@code work} runs again, up to
+     * {@link #getTransactionRetries()} more times.
+     * @param work The operations to run; it receives this client and may be called more than once.
+     * @return The value returned by the successful attempt.
+     * @throws RuntimeException if the transaction cannot be started or committed, or {@code work} throws.
+     */
+    @Override
+    public <T> T inTransaction(Function<IDbConnection, T> work) {
+        for (int attempt = 0; ; attempt++) {
+            if (!begin()) {
+                throw new RuntimeException("Could not start a transaction");
+            }
+            Transaction current = this.transaction.get();
+
+            SQLException failure;
+            try {
+                T result = work.apply(this);
+                failure = current.retryableFailure;
+                if (failure == null) {
+                    commitOrThrow();
+                    return result;
+                }
+                rollback();
+            } catch (SQLException e) {
+                // commitOrThrow já encerrou a transação.
+                failure = e;
+            } catch (RuntimeException e) {
+                if (this.transaction.get() == current) {
+                    rollback();
+                }
+                failure = current.retryableFailure;
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+
+            if (!isRetryable(failure) || attempt >= this.transactionRetries) {
+                throw new RuntimeException("Transaction failed after " + (attempt + 1) + " attempt(s)", failure);
+            }
+            SQLException conflict = failure;
+            int attempts = attempt + 1;
+            LOG.info(() -> "Conflito na transação (" + conflict.getSQLState() + "/" + conflict.getErrorCode()
+                    + "); tentando novamente (" + attempts + "/" + this.transactionRetries + ").");
+            backoff(attempt);
+        }
+    }
+
+    /**
+     * Sets how many times {@link #inTransaction(Function)} retries after a deadlock or serialization failure.
+     */
+    public void setTransactionRetries(int transactionRetries) {
+        if (transactionRetries < 0) {
+            throw new IllegalArgumentException("Transaction retries cannot be negative.");
+        }
+        this.transactionRetries = transactionRetries;
+    }
+
+    public int getTransactionRetries() {
+        return this.transactionRetries;
+    }
+
+    /**
+     * @return true if the calling thread has an open transaction on this client.
+     */
+    public boolean inTransaction() {
+        return this.transaction.get() != null;
+    }
+
+    /**
+     * Opens a group-commit session: inserts made through it share one transaction that is committed
+     * every {@code everyStatements} statements or {@code maxDelay} after the first uncommitted one.
+     * @param everyStatements Number of statements per commit.
+     * @param maxDelay Longest time a statement may stay uncommitted.
+     * @return The session; closing it commits whatever is pending.
+     * @throws RuntimeException if no connection is available.
+     */
+    public GroupCommitSession groupCommit(int everyStatements, Duration maxDelay) {
+        try {
+            return new GroupCommitSession(this, everyStatements, maxDelay);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not start a group-commit session", e);
+        }
+    }
+
+    /**
+     * @return true for deadlocks (MySQL error 1213) and serialization failures (SQLState 40001),
+     *         after which the whole transaction can safely be retried.
+     */
+    public static boolean isRetryable(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if ("40001".equals(current.getSQLState()) || current.getErrorCode() == 1213) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true when the connection itself failed (SQLState class 08, e.g. Connector/J's 08S01 communications
+     *         failure, or MySQL errors 2006/2013/4031 for a connection closed by the server), after which
+     *         the connection cannot be used again.
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            String state = current.getSQLState();
+            int code = current.getErrorCode();
+            if ((state != null && state.startsWith("08")) || code == 2006 || code == 2013 || code == 4031
+                    || current instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers a deadlock or serialization failure hit inside the calling thread's transaction,
+     * so {@link #inTransaction(Function)} can retry even though the operation only returned false.
+     */
+    protected void recordFailure(SQLException e) {
+        Transaction current = this.transaction.get();
+        if (current != null && current.retryableFailure == null && isRetryable(e)) {
+            current.retryableFailure = e;
+        }
+    }
+
+    private void commitOrThrow() throws SQLException {
+        Transaction current = this.transaction.get();
+        if (current == null) {
+            throw new SQLException("No active transaction on this thread.");
+        }
+        try {
+            current.connection.commit();
+        } catch (SQLException e) {
+            try {
+                current.connection.rollback();
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        } finally {
+            end(current);
+        }
+    }
+
+    private void end(Transaction current) {
+        this.transaction.remove();
+        try {
+            current.connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            LOG.warning(() -> "Falha ao restaurar o auto-commit: " + e.getMessage());
+        } finally {
+            release(current.connection);
+        }
+    }
+
+    /**
+     * Sleeps 10, 20, 40... ms (capped at 1s) with random jitter before retrying a transaction.
+     */
+    static void backoff(int attempt) {
+        long base = Math.min(1000, 10L << Math.min(attempt, 10));
+        try {
+            Thread.sleep(base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A transaction bound to one thread.
+     */
+    private static final class Transaction {
+        private final Connection connection;
+        private SQLException retryableFailure = null;
+
+        private Transaction(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
     // --- Métodos Abstratos a serem implementados pelas classes filhas ---
 
     /**
@@ -0,0 +1,160 @@
+package org.db.connection;
+
+import org.db.interfaces.IAsyncDbConnection;
+import org.db.interfaces.IDbConnection;
+import org.db.model.UserRow;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs the blocking calls of an {@link IDbConnection} on virtual threads and returns {@link CompletableFuture}s.
+ * At most {@code maxConcurrency} calls touch the database at once, which should match the number of
+ * connections available (the pool size for a {@link PooledDbConnection}, one for a {@link DbConnection}).
+ * Up to {@code maxPending} calls may wait for their turn; beyond that, submitting threads block for up to
+ * {@code submitTimeout} and then get a future failed with {@link RejectedExecutionException}.
+ * @version 1.0.0
+ */
+public class AsyncDbConnection implements IAsyncDbConnection {
+
+    /**
+     * Default number of submitted but not yet finished operations.
+     */
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+
+    private final IDbConnection delegate;
+    private final int maxConcurrency;
+    private final Semaphore inFlight;
+    private final Semaphore pending;
+    private final Duration submitTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param delegate The blocking connection that runs each operation.
+     * @param maxConcurrency Maximum number of operations running against the database at once.
+     * @param maxPending Maximum number of operations submitted and not yet finished.
+     * @param submitTimeout How long a caller may block when {@code maxPending} is reached.
+     */
+    public AsyncDbConnection(IDbConnection delegate, int maxConcurrency, int maxPending, Duration submitTimeout) {
+        if (delegate == null || submitTimeout == null) {
+            throw new IllegalArgumentException("Delegate connection and submit timeout cannot be null.");
+        }
+        if (maxConcurrency <= 0 || maxPending < maxConcurrency) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < maxConcurrency <= maxPending.");
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.inFlight = new Semaphore(maxConcurrency);
+        this.pending = new Semaphore(maxPending);
+        this.submitTimeout = submitTimeout;
+    }
+
+    /**
+     * Sizes the concurrency limit from the delegate: the pool's max size for a {@link PooledDbConnection},
+     * one otherwise.
+     */
+    public AsyncDbConnection(IDbConnection delegate) {
+        this(delegate, defaultConcurrency(delegate), DEFAULT_MAX_PENDING, Duration.ofSeconds(30));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> insertAsync(String table, String nome, String email) {
+        return submit(() -> this.delegate.insert(table, nome, email));
+    }
+
+    @Override
+    public CompletableFuture<int[]> insertAllAsync(String table, Iterable<? extends Map.Entry<String, String>> rows) {
+        return submit(() -> this.delegate.insertAll(table, rows));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> selectAsync(String table) {
+        return submit(() -> this.delegate.select(table));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> selectAsync(String table, Consumer<UserRow> handler) {
+        return submit(() -> this.delegate.select(table, handler));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkAsync() {
+        return submit(this.delegate::check);
+    }
+
+    /**
+     * @return The number of operations currently running against the database.
+     */
+    public int getInFlight() {
+        return this.maxConcurrency - this.inFlight.availablePermits();
+    }
+
+    /**
+     * @return The number of operations that can still be submitted without blocking.
+     */
+    public int getRemainingCapacity() {
+        return this.pending.availablePermits();
+    }
+
+    /**
+     * Stops accepting new operations and waits for the submitted ones to finish.
+     * The wrapped connection is left open.
+     */
+    @Override
+    public void close() {
+        this.executor.close();
+    }
+
+    /**
+     * Runs a blocking call on a virtual thread once a concurrency slot is free.
+     * The calling thread blocks only when {@code maxPending} operations are already queued.
+     */
+    private <T> CompletableFuture<T> submit(Callable<T> operation) {
+        try {
+            if (!this.pending.tryAcquire(this.submitTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Too many pending database operations; waited " + this.submitTimeout.toMillis() + " ms."));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    this.inFlight.acquire();
+                    try {
+                        result.complete(operation.call());
+                    } finally {
+                        this.inFlight.release();
+                    }
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    this.pending.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.pending.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static int defaultConcurrency(IDbConnection delegate) {
+        if (delegate instanceof PooledDbConnection pooled) {
+            return pooled.getPoolConfig().maxSize();
+        }
+        return 1;
+    }
+}
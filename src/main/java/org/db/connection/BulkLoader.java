@@ -0,0 +1,402 @@
+package org.db.connection;
+
+import org.db.interfaces.IDbMetrics.Operation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Loads a large number of rows in parallel.
+ * The input is cut into partitions of {@code partitionSize} rows; each partition runs on a virtual thread,
+ * borrows its own connection and is written with batched inserts inside one transaction.
+ * At most {@code parallelism} partitions are loaded, and held in memory, at once, so the input can be
+ * far larger than the heap.
+ * <p>
+ * Use a {@link PooledDbConnection} with at least {@code parallelism} connections; with a single
+ * {@link DbConnection} every partition shares the one connection and runs one after the other.
+ * @version 1.0.0
+ */
+public class BulkLoader {
+
+    private static final Logger LOG = Logger.getLogger(BulkLoader.class.getName());
+
+    /**
+     * Default number of rows per partition.
+     */
+    public static final int DEFAULT_PARTITION_SIZE = 10_000;
+
+    /**
+     * A partition that failed entirely or in part.
+     * @param partition The partition number, starting at 0.
+     * @param firstRow Position of the partition's first row in the input, starting at 0.
+     * @param rows Rows in the partition.
+     * @param failedRows Rows that were not inserted.
+     * @param cause The error that rolled the whole partition back, or null if only some rows were rejected.
+     */
+    public record PartitionFailure(int partition, long firstRow, int rows, int failedRows, SQLException cause) {
+    }
+
+    /**
+     * Progress of a load; the final report is returned by {@code load}.
+     * @param partitions Partitions finished.
+     * @param rows Rows read from the input.
+     * @param inserted Rows inserted.
+     * @param failed Rows not inserted.
+     * @param rejected Input lines that could not be parsed (files only).
+     * @param elapsed Time since the load started.
+     * @param failures Partitions with failed rows, in partition order.
+     */
+    public record Report(int partitions, long rows, long inserted, long failed, long rejected, Duration elapsed,
+                         List<PartitionFailure> failures) {
+
+        /**
+         * @return Inserted rows per second of elapsed time.
+         */
+        public double rowsPerSecond() {
+            long nanos = this.elapsed.toNanos();
+            return nanos == 0 ? 0 : this.inserted * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Report{partitions=%d, rows=%d, inserted=%d, failed=%d, rejected=%d, elapsed=%d ms, rows/s=%.0f}",
+                    this.partitions, this.rows, this.inserted, this.failed, this.rejected, this.elapsed.toMillis(), rowsPerSecond());
+        }
+    }
+
+    private final ADbConnection db;
+    private final int parallelism;
+    private final int partitionSize;
+    private volatile Consumer<Report> progressListener = report -> { };
+
+    /**
+     * @param db The connection the rows are written to.
+     * @param parallelism Maximum number of partitions loaded at once.
+     * @param partitionSize Rows per partition (and per transaction).
+     */
+    public BulkLoader(ADbConnection db, int parallelism, int partitionSize) {
+        if (db == null) {
+            throw new IllegalArgumentException("Connection cannot be null.");
+        }
+        if (parallelism <= 0 || partitionSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and partition size must be positive.");
+        }
+        this.db = db;
+        this.parallelism = parallelism;
+        this.partitionSize = partitionSize;
+    }
+
+    /**
+     * Sizes the parallelism from the connection: the pool's max size for a {@link PooledDbConnection}, one otherwise.
+     */
+    public BulkLoader(ADbConnection db) {
+        this(db, defaultParallelism(db), DEFAULT_PARTITION_SIZE);
+    }
+
+    /**
+     * Registers a callback that receives a progress report each time a partition finishes.
+     * It is called from the loading threads, so it must be thread-safe and quick.
+     */
+    public void setProgressListener(Consumer<Report> listener) {
+        this.progressListener = listener == null ? report -> { } : listener;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public int getPartitionSize() {
+        return this.partitionSize;
+    }
+
+    /**
+     * Loads every (nome, email) pair of a map.
+     */
+    public Report load(String table, Map<String, String> rows) {
+        return load(table, rows.entrySet().iterator());
+    }
+
+    /**
+     * Loads staged rows. Each partition is a range of the buffer, bound straight from its segments, so the
+     * rows are never held on the heap; the buffer must not be written to while loading.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param rows The rows to insert.
+     * @return The final report, with one entry per failed partition.
+     * @throws RuntimeException if the connection is not active.
+     */
+    public Report load(String table, RowStagingBuffer rows) {
+        Iterator<Partition> partitions = new Iterator<>() {
+            private int first = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.first < rows.size();
+            }
+
+            @Override
+            public Partition next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                RowStagingBuffer.Range chunk = rows.range(this.first, Math.min(rows.size(), this.first + BulkLoader.this.partitionSize));
+                Partition partition = new Partition(this.first, chunk.size(), chunk);
+                this.first += chunk.size();
+                return partition;
+            }
+        };
+        return run(table, partitions, new LongAdder());
+    }
+
+    /**
+     * Loads a text file with one "nome,email" row per line, read lazily.
+     * Blank lines and a "nome,email" header are ignored; lines without a comma are counted as rejected.
+     * @throws UncheckedIOException if the file cannot be read.
+     */
+    public Report load(String table, Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            LineIterator lines = new LineIterator(reader);
+            return load(table, lines, lines.rejected);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+
+    /**
+     * Loads rows from an iterator, which is only read by the calling thread.
+     * Returns once every partition has been committed or has failed.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param rows The rows to insert, as (nome, email) pairs.
+     * @return The final report, with one entry per failed partition.
+     * @throws RuntimeException if the connection is not active.
+     */
+    public Report load(String table, Iterator<? extends Map.Entry<String, String>> rows) {
+        return load(table, rows, new LongAdder());
+    }
+
+    private Report load(String table, Iterator<? extends Map.Entry<String, String>> rows, LongAdder rejected) {
+        Iterator<Partition> partitions = new Iterator<>() {
+            private long offset = 0;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Partition next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Map.Entry<String, String>> chunk = new ArrayList<>(BulkLoader.this.partitionSize);
+                while (chunk.size() < BulkLoader.this.partitionSize && rows.hasNext()) {
+                    chunk.add(rows.next());
+                }
+                Partition partition = new Partition(this.offset, chunk.size(), chunk);
+                this.offset += chunk.size();
+                return partition;
+            }
+        };
+        return run(table, partitions, rejected);
+    }
+
+    /**
+     * Drives a load: pulls the partitions on the calling thread and runs at most {@code parallelism} of them
+     * at once, each on its own virtual thread. Returns once every partition has been committed or has failed.
+     * @throws RuntimeException if the connection is not active.
+     */
+    private Report run(String table, Iterator<Partition> partitions, LongAdder rejected) {
+        if (!this.db.isConnected()) {
+            throw new RuntimeException("Connection is not active. Please call connect() before loading rows.");
+        }
+
+        Run run = new Run(table, rejected);
+        Semaphore slots = new Semaphore(this.parallelism);
+        int index = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (partitions.hasNext()) {
+                Partition partition = partitions.next();
+                run.read.add(partition.size());
+
+                try {
+                    slots.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOG.warning("Carga interrompida; aguardando as partições em andamento.");
+                    break;
+                }
+                int number = index++;
+                executor.execute(() -> {
+                    try {
+                        run.loadPartition(number, partition.firstRow(), partition.size(), partition.rows());
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+
+        Report report = run.report();
+        LOG.info(() -> "Carga concluída na tabela '" + table + "': " + report);
+        return report;
+    }
+
+    /**
+     * The rows of one partition and where they start in the input.
+     */
+    private record Partition(long firstRow, int size, Iterable<? extends Map.Entry<String, String>> rows) {
+    }
+
+    /**
+     * State shared by the partitions of one load.
+     */
+    private final class Run {
+        private final String table;
+        private final long start = System.nanoTime();
+        private final LongAdder read = new LongAdder();
+        private final LongAdder inserted = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder finished = new LongAdder();
+        private final LongAdder rejected;
+        private final List<PartitionFailure> failures = Collections.synchronizedList(new ArrayList<>());
+
+        private Run(String table, LongAdder rejected) {
+            this.table = table;
+            this.rejected = rejected;
+        }
+
+        private void loadPartition(int index, long firstRow, int size, Iterable<? extends Map.Entry<String, String>> chunk) {
+            long started = System.nanoTime();
+            ADbConnection.BatchResults results = new ADbConnection.BatchResults(size);
+            SQLException cause = null;
+
+            try (ADbConnection.Lease lease = BulkLoader.this.db.lease()) {
+                Connection connection = lease.connection();
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    BulkLoader.this.db.insertBatch(connection, this.table, chunk, results);
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                cause = e;
+            } catch (RuntimeException e) {
+                cause = new SQLException("Partition " + index + " failed: " + e.getMessage(), e);
+            }
+
+            int ok = 0;
+            if (cause == null) {
+                for (int count : results.toArray()) {
+                    if (count != Statement.EXECUTE_FAILED) {
+                        ok++;
+                    }
+                }
+            }
+            int failedRows = size - ok;
+            BulkLoader.this.db.record(Operation.INSERT_ALL, started, ok, failedRows == 0);
+
+            this.inserted.add(ok);
+            this.failed.add(failedRows);
+            if (failedRows > 0) {
+                this.failures.add(new PartitionFailure(index, firstRow, size, failedRows, cause));
+                SQLException error = cause;
+                LOG.warning(() -> "Partição " + index + " (linhas " + firstRow + "-" + (firstRow + size - 1) + "): "
+                        + failedRows + " linha(s) não inseridas" + (error == null ? "." : ": " + error.getMessage()));
+            }
+            this.finished.increment();
+            BulkLoader.this.progressListener.accept(report());
+        }
+
+        private Report report() {
+            List<PartitionFailure> sorted;
+            synchronized (this.failures) {
+                sorted = new ArrayList<>(this.failures);
+            }
+            sorted.sort(Comparator.comparingInt(PartitionFailure::partition));
+            return new Report(this.finished.intValue(), this.read.sum(), this.inserted.sum(), this.failed.sum(),
+                    this.rejected.sum(), Duration.ofNanos(System.nanoTime() - this.start), List.copyOf(sorted));
+        }
+    }
+
+    /**
+     * Reads "nome,email" lines lazily. The email is everything after the last comma, so names may contain commas.
+     */
+    private static final class LineIterator implements Iterator<Map.Entry<String, String>> {
+        private final BufferedReader reader;
+        private final LongAdder rejected = new LongAdder();
+        private Map.Entry<String, String> next = null;
+        private long lineNumber = 0;
+
+        private LineIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                String line;
+                while (this.next == null && (line = this.reader.readLine()) != null) {
+                    this.lineNumber++;
+                    line = line.strip();
+                    if (line.isEmpty() || (this.lineNumber == 1 && line.equalsIgnoreCase("nome,email"))) {
+                        continue;
+                    }
+                    int comma = line.lastIndexOf(',');
+                    if (comma <= 0 || comma == line.length() - 1) {
+                        this.rejected.increment();
+                        long number = this.lineNumber;
+                        LOG.fine(() -> "Linha " + number + " ignorada: esperado \"nome,email\".");
+                        continue;
+                    }
+                    this.next = Map.entry(line.substring(0, comma).strip(), line.substring(comma + 1).strip());
+                }
+                return this.next != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, String> current = this.next;
+            this.next = null;
+            return current;
+        }
+    }
+
+    private static int defaultParallelism(ADbConnection db) {
+        if (db instanceof PooledDbConnection pooled) {
+            return pooled.getPoolConfig().maxSize();
+        }
+        return 1;
+    }
+}
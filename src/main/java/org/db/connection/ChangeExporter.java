@@ -0,0 +1,373 @@
+package org.db.connection;
+
+import org.db.interfaces.IDbMetrics.Operation;
+import org.db.interfaces.RowMapper;
+import org.db.metrics.Json;
+import org.db.model.Usuario;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Exports the rows of a 'usuarios'-like table added since the last export, for mirroring into another system.
+ * The position of the last exported row (the watermark) is kept in a small file, replaced atomically after
+ * each batch has been handed to the {@link Sink}, so an export interrupted by a crash resumes after the last
+ * complete batch. Delivery is at-least-once: the batch in flight during a crash is exported again, so the
+ * receiver should write rows idempotently, by id.
+ * <p>
+ * Rows are read with a keyset query ({@code WHERE id > ? ORDER BY id}, or on {@code (data_cadastro, id)}) through
+ * a streaming statement, a server-side cursor when {@link ADbConnection#enableCursorFetch()} is set, so each poll
+ * costs time proportional to the rows it returns as long as the watermark column is indexed.
+ * A row committed after a row with a higher watermark was already exported (e.g. a long transaction holding a
+ * lower auto-increment id) is not seen.
+ * @version 1.0.0
+ */
+public class ChangeExporter {
+
+    private static final Logger LOG = Logger.getLogger(ChangeExporter.class.getName());
+
+    /**
+     * Default number of rows handed to the sink, and covered by one watermark update, at a time.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final List<String> COLUMNS = List.of("id", "nome", "email", "data_cadastro");
+
+    /**
+     * The column rows are ordered and tracked by.
+     */
+    public enum Watermark {
+        /** The auto-increment id: new rows only. */
+        ID,
+        /** The creation time, with the id breaking ties between rows created in the same instant. */
+        DATA_CADASTRO
+    }
+
+    /**
+     * Receives the exported rows, one batch at a time and in watermark order. When {@code write} returns,
+     * the batch must be durable, because the watermark is moved past it right after.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void write(List<Usuario> rows) throws IOException;
+    }
+
+    /**
+     * The last exported row.
+     * @param id Its id; 0 before the first export.
+     * @param dataCadastro Its creation time, for {@link Watermark#DATA_CADASTRO}; null otherwise and before the first export.
+     */
+    public record Position(long id, Instant dataCadastro) {
+
+        public static final Position START = new Position(0, null);
+    }
+
+    /**
+     * Outcome of one export.
+     * @param rows Rows handed to the sink.
+     * @param batches Batches handed to the sink, each followed by a watermark update.
+     * @param from The watermark before the export.
+     * @param to The watermark after the export.
+     * @param elapsed Time the export took.
+     */
+    public record Report(long rows, long batches, Position from, Position to, Duration elapsed) {
+
+        @Override
+        public String toString() {
+            return String.format("Report{rows=%d, batches=%d, from=%s, to=%s, elapsed=%d ms}",
+                    this.rows, this.batches, this.from, this.to, this.elapsed.toMillis());
+        }
+    }
+
+    private final ADbConnection db;
+    private final String table;
+    private final Watermark watermark;
+    private final Path watermarkFile;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean indexChecked = false;
+
+    /**
+     * @param db The connection rows are read from.
+     * @param table The table to export, with 'id', 'nome', 'email' and 'data_cadastro' columns (e.g., "usuarios").
+     * @param watermark The column that orders the rows.
+     * @param watermarkFile Where the position is kept between exports; created on the first export.
+     */
+    public ChangeExporter(ADbConnection db, String table, Watermark watermark, Path watermarkFile) {
+        if (db == null || table == null || watermark == null || watermarkFile == null) {
+            throw new IllegalArgumentException("Connection, table, watermark and watermark file cannot be null.");
+        }
+        this.db = db;
+        this.table = table;
+        this.watermark = watermark;
+        this.watermarkFile = watermarkFile.toAbsolutePath();
+    }
+
+    /**
+     * @param batchSize Rows per sink call and per watermark update.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * @return The persisted watermark, or {@link Position#START} if nothing was exported yet.
+     * @throws UncheckedIOException if the watermark file cannot be read.
+     */
+    public Position getPosition() {
+        if (!Files.exists(this.watermarkFile)) {
+            return Position.START;
+        }
+        Properties properties = new Properties();
+        try (var reader = Files.newBufferedReader(this.watermarkFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read watermark " + this.watermarkFile, e);
+        }
+        String dataCadastro = properties.getProperty("data_cadastro");
+        return new Position(Long.parseLong(properties.getProperty("id", "0")),
+                dataCadastro == null || dataCadastro.isEmpty() ? null : Instant.parse(dataCadastro));
+    }
+
+    /**
+     * Forgets the watermark, so the next export starts from the first row.
+     */
+    public void reset() {
+        try {
+            Files.deleteIfExists(this.watermarkFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete watermark " + this.watermarkFile, e);
+        }
+    }
+
+    /**
+     * Appends the new rows to an NDJSON file, one object per line
+     * ({@code {"id":1,"nome":"...","email":"...","data_cadastro":"2024-01-01T00:00:00Z"}}).
+     * @param file The file, created if needed.
+     * @return What was exported.
+     */
+    public Report exportTo(Path file) {
+        try (NdjsonSink sink = new NdjsonSink(file)) {
+            return export(sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    /**
+     * Hands every row past the watermark to the sink, in batches, moving the watermark after each one.
+     * @param sink Receives the rows.
+     * @return What was exported.
+     * @throws UncheckedIOException if the sink or the watermark file fails; batches written before stay exported.
+     * @throws RuntimeException if the connection is not active or the query fails.
+     */
+    public Report export(Sink sink) {
+        if (!this.db.isConnected()) {
+            throw new RuntimeException("Connection is not active. Please call connect() before exporting.");
+        }
+
+        long start = System.nanoTime();
+        Position from = getPosition();
+        Position position = from;
+        long rows = 0;
+        long batches = 0;
+
+        try (ADbConnection.Lease lease = this.db.readLease()) {
+            this.db.resolveTable(lease.connection(), this.table).columns(COLUMNS);
+            warnIfUnindexed(lease.connection().getMetaData());
+
+            try (ADbConnection.Prepared prepared = this.db.prepareStreaming(lease.connection(), sql())) {
+                bind(prepared.statement(), from);
+                try (ResultSet resultSet = prepared.executeQuery()) {
+                    RowMapper.Reader<Usuario> reader = RowMappers.USUARIO.bind(resultSet);
+                    List<Usuario> batch = new ArrayList<>(this.batchSize);
+                    while (resultSet.next()) {
+                        batch.add(reader.read(resultSet));
+                        if (batch.size() == this.batchSize) {
+                            position = flush(sink, batch);
+                            rows += batch.size();
+                            batches++;
+                            batch.clear();
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        position = flush(sink, batch);
+                        rows += batch.size();
+                        batches++;
+                    }
+                }
+                prepared.rows(rows);
+            }
+            this.db.record(Operation.SELECT, start, rows, true);
+
+        } catch (SQLException e) {
+            this.db.recordFailure(e);
+            this.db.record(Operation.SELECT, start, rows, false);
+            ADbConnection.logFailure(e, () -> "Falha ao exportar as alterações da tabela '" + this.table + "'.");
+            throw new RuntimeException("Could not export table '" + this.table + "'", e);
+        } catch (IOException e) {
+            this.db.record(Operation.SELECT, start, rows, false);
+            throw new UncheckedIOException("Could not export table '" + this.table + "'", e);
+        }
+
+        Report report = new Report(rows, batches, from, position, Duration.ofNanos(System.nanoTime() - start));
+        LOG.fine(() -> "Exportação da tabela '" + this.table + "' concluída: " + report);
+        return report;
+    }
+
+    private String sql() {
+        String select = "SELECT id, nome, email, data_cadastro FROM " + this.table;
+        return this.watermark == Watermark.ID
+                ? select + " WHERE id > ? ORDER BY id"
+                // Forma expandida de (data_cadastro, id) > (?, ?), que usa o índice como intervalo.
+                : select + " WHERE data_cadastro >= ? AND (data_cadastro > ? OR id > ?) ORDER BY data_cadastro, id";
+    }
+
+    private void bind(PreparedStatement statement, Position from) throws SQLException {
+        if (this.watermark == Watermark.ID) {
+            statement.setLong(1, from.id());
+            return;
+        }
+        Timestamp after = Timestamp.from(from.dataCadastro() == null ? Instant.EPOCH : from.dataCadastro());
+        statement.setTimestamp(1, after);
+        statement.setTimestamp(2, after);
+        statement.setLong(3, from.dataCadastro() == null ? Long.MIN_VALUE : from.id());
+    }
+
+    /**
+     * Hands a batch to the sink, then persists the position of its last row.
+     */
+    private Position flush(Sink sink, List<Usuario> batch) throws IOException {
+        sink.write(batch);
+        Usuario last = batch.get(batch.size() - 1);
+        Position position = new Position(last.id(), this.watermark == Watermark.ID ? null : last.dataCadastro());
+        save(position);
+        return position;
+    }
+
+    /**
+     * Writes the position to a temporary file next to the watermark, forces it to disk and renames it over
+     * the watermark, so a crash leaves either the old or the new position, never a partial one.
+     */
+    private void save(Position position) throws IOException {
+        String content = "id=" + position.id() + "\n"
+                + "data_cadastro=" + (position.dataCadastro() == null ? "" : position.dataCadastro()) + "\n";
+        Path directory = this.watermarkFile.getParent();
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(this.watermarkFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, this.watermarkFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, this.watermarkFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Logs once if no index starts with the watermark column, since every poll would then scan the table.
+     */
+    private void warnIfUnindexed(DatabaseMetaData metaData) throws SQLException {
+        if (this.indexChecked) {
+            return;
+        }
+        String column = this.watermark.name().toLowerCase(Locale.ROOT);
+        boolean indexed = false;
+        for (String name : new String[]{this.table, this.table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet indexes = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (indexes.next()) {
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                        indexed = true;
+                    }
+                }
+            }
+        }
+        if (!indexed) {
+            LOG.warning(() -> "A coluna '" + column + "' da tabela '" + this.table + "' não tem índice; cada exportação"
+                    + " vai percorrer a tabela inteira. Crie um índice em (" + column + ", id).");
+        }
+        this.indexChecked = true;
+    }
+
+    /**
+     * Appends rows to an NDJSON file through a {@link FileChannel}: each batch is encoded into one buffer,
+     * written with as few calls as possible and forced to disk before the watermark moves.
+     */
+    public static final class NdjsonSink implements Sink, AutoCloseable {
+        private final FileChannel channel;
+        private final StringBuilder text = new StringBuilder(64 * 1024);
+
+        /**
+         * @param file The file to append to, created if needed.
+         */
+        public NdjsonSink(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        @Override
+        public void write(List<Usuario> rows) throws IOException {
+            this.text.setLength(0);
+            for (Usuario row : rows) {
+                this.text.append("{\"id\":").append(row.id()).append(",\"nome\":");
+                Json.string(this.text, row.nome());
+                this.text.append(",\"email\":");
+                Json.string(this.text, row.email());
+                this.text.append(",\"data_cadastro\":");
+                if (row.dataCadastro() == null) {
+                    this.text.append("null");
+                } else {
+                    this.text.append('"').append(row.dataCadastro()).append('"');
+                }
+                this.text.append("}\n");
+            }
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(this.text));
+            while (bytes.hasRemaining()) {
+                this.channel.write(bytes);
+            }
+            this.channel.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeExporter{table=" + this.table + ", watermark=" + this.watermark + ", file=" + this.watermarkFile + "}";
+    }
+}
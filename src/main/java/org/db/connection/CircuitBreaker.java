@@ -0,0 +1,114 @@
+package org.db.connection;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * A consecutive-failure circuit breaker.
+ * While CLOSED every call is allowed; {@code failureThreshold} failures in a row OPEN it, and calls are then
+ * rejected immediately for {@code openDuration}. After that a single trial call is let through (HALF_OPEN):
+ * its success closes the circuit, its failure opens it again.
+ * The closed-state check is a single volatile read, so it can sit on the hot path of every operation.
+ * @version 1.0.0
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOG = Logger.getLogger(CircuitBreaker.class.getName());
+
+    /**
+     * The breaker states.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private volatile State state = State.CLOSED;
+    private volatile int failures = 0;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+
+    /**
+     * @param failureThreshold Consecutive failures that open the circuit.
+     * @param openDuration How long the circuit stays open before a trial call.
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0 || openDuration == null || openDuration.isNegative()) {
+            throw new IllegalArgumentException("failureThreshold must be positive and openDuration non-negative.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return true if the call may proceed; false if the circuit is open, or half-open with its trial call already running.
+     */
+    public boolean allow() {
+        if (this.state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (this.state == State.OPEN && System.nanoTime() - this.openedAt >= this.openNanos) {
+                this.state = State.HALF_OPEN;
+                this.trialInFlight = false;
+                LOG.fine("Circuito meio-aberto: permitindo uma chamada de teste.");
+            }
+            if (this.state == State.HALF_OPEN && !this.trialInFlight) {
+                this.trialInFlight = true;
+                return true;
+            }
+            return this.state == State.CLOSED;
+        }
+    }
+
+    /**
+     * Records a successful call, closing the circuit.
+     */
+    public void onSuccess() {
+        if (this.state == State.CLOSED && this.failures == 0) {
+            return;
+        }
+        synchronized (this) {
+            if (this.state != State.CLOSED) {
+                LOG.info("Circuito fechado: o banco de dados voltou a responder.");
+            }
+            this.state = State.CLOSED;
+            this.failures = 0;
+            this.trialInFlight = false;
+        }
+    }
+
+    /**
+     * Records a failed call, opening the circuit after {@code failureThreshold} failures in a row or a failed trial.
+     */
+    public synchronized void onFailure() {
+        this.failures++;
+        if (this.state == State.HALF_OPEN || (this.state == State.CLOSED && this.failures >= this.failureThreshold)) {
+            if (this.state == State.CLOSED) {
+                LOG.warning(() -> "Circuito aberto após " + this.failures + " falhas de conexão seguidas.");
+            }
+            this.state = State.OPEN;
+            this.openedAt = System.nanoTime();
+            this.trialInFlight = false;
+        }
+    }
+
+    public State getState() {
+        return this.state;
+    }
+
+    /**
+     * @return Consecutive failures since the last success.
+     */
+    public synchronized int getFailures() {
+        return this.failures;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker{state=" + this.state + ", failures=" + this.failures + "/" + this.failureThreshold + "}";
+    }
+}
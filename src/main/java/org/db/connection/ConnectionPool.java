@@ -0,0 +1,340 @@
+package org.db.connection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * A small JDBC connection pool.
+ * Idle connections live in a lock-free deque (most recently used first) and a semaphore bounds how many
+ * callers can hold a connection at once, so borrowing and returning never take a lock.
+ * A background task closes connections that stayed idle too long or outlived their max lifetime,
+ * and keeps at least {@link PoolConfig#minSize()} connections open.
+ * @version 1.0.0
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Connections used more recently than this are handed out without calling {@link Connection#isValid(int)}.
+     */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * Busy-wait iterations in {@link #take()} before it starts parking.
+     */
+    private static final int TAKE_SPINS = 64;
+
+    /**
+     * Longest single pause in {@link #take()} while waiting for a connection to come back.
+     */
+    private static final long MAX_TAKE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolConfig config;
+
+    private final ConcurrentLinkedDeque<Entry> idle = new ConcurrentLinkedDeque<>();
+    private final Map<Connection, Entry> borrowed = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+    private volatile Consumer<Connection> discardListener = connection -> { };
+
+    /**
+     * Creates the pool and opens {@link PoolConfig#minSize()} connections.
+     * @param url The full JDBC URL for the database.
+     * @param user The database username.
+     * @param password The database user password.
+     * @param config Pool sizing and timeouts.
+     * @throws SQLException if the initial connections cannot be opened.
+     */
+    public ConnectionPool(String url, String user, String password, PoolConfig config) throws SQLException {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize());
+
+        try {
+            fill();
+        } catch (SQLException e) {
+            closeIdle();
+            throw e;
+        }
+
+        long period = Math.max(1000, config.idleTimeout().toMillis() / 2);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to {@link PoolConfig#connectionTimeout()} when all of them are in use.
+     * @return A validated connection that must be given back with {@link #giveBack(Connection)}.
+     * @throws SQLTransientConnectionException if the pool stays exhausted for the whole timeout.
+     * @throws SQLException if the pool is closed or a new connection cannot be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("The connection pool is closed.");
+        }
+
+        try {
+            if (!this.permits.tryAcquire(this.config.connectionTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Connection pool exhausted: no connection available after "
+                        + this.config.connectionTimeout().toMillis() + " ms (max " + this.config.maxSize() + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection.", e);
+        }
+
+        try {
+            Entry entry = take();
+            entry.lastUsed = System.nanoTime();
+            this.borrowed.put(entry.connection, entry);
+            return entry.connection;
+        } catch (SQLException | RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the pool. Open transactions are rolled back and auto-commit is restored.
+     * Connections that are broken, too old, or returned after {@link #close()} are closed instead.
+     * @param connection A connection obtained from {@link #borrow()}; other connections are ignored.
+     */
+    public void giveBack(Connection connection) {
+        Entry entry = connection == null ? null : this.borrowed.remove(connection);
+        if (entry == null) {
+            return;
+        }
+
+        try {
+            long now = System.nanoTime();
+            if (this.closed || connection.isClosed() || expired(entry, now)) {
+                discard(entry);
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            entry.lastUsed = now;
+            this.idle.offerFirst(entry);
+        } catch (SQLException e) {
+            discard(entry);
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Discards a borrowed connection instead of returning it, e.g. after a fatal error.
+     * @param connection A connection obtained from {@link #borrow()}.
+     */
+    public void evict(Connection connection) {
+        Entry entry = connection == null ? null : this.borrowed.remove(connection);
+        if (entry != null) {
+            discard(entry);
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Registers a callback invoked right before a connection is closed by the pool,
+     * e.g. to drop statements cached for it.
+     * @param listener Receives the connection about to be closed.
+     */
+    public void setDiscardListener(Consumer<Connection> listener) {
+        this.discardListener = listener == null ? connection -> { } : listener;
+    }
+
+    /**
+     * @return The number of connections currently borrowed.
+     */
+    public int getActiveCount() {
+        return this.borrowed.size();
+    }
+
+    /**
+     * @return The number of open connections waiting in the pool.
+     */
+    public int getIdleCount() {
+        return this.idle.size();
+    }
+
+    /**
+     * @return The number of open connections, borrowed or idle.
+     */
+    public int getTotalCount() {
+        return this.total.get();
+    }
+
+    public PoolConfig getConfig() {
+        return this.config;
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Closes every idle connection and stops the housekeeper.
+     * Borrowed connections are closed as soon as they are given back.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.housekeeper.shutdownNow();
+        closeIdle();
+    }
+
+    /**
+     * Takes an idle connection, or opens a new one while the pool is below its maximum size.
+     * The caller already holds a permit, so when {@code total} is at the maximum some other
+     * connection is on its way back to the idle deque: spin briefly, then park with a growing
+     * pause (up to {@link #MAX_TAKE_PARK_NANOS}) so a slow return does not burn a core.
+     */
+    private Entry take() throws SQLException {
+        int waits = 0;
+        while (true) {
+            Entry entry = this.idle.pollFirst();
+            if (entry != null) {
+                if (usable(entry)) {
+                    return entry;
+                }
+                discard(entry);
+                continue;
+            }
+
+            int current = this.total.get();
+            if (current < this.config.maxSize()) {
+                if (this.total.compareAndSet(current, current + 1)) {
+                    return open();
+                }
+            } else if (waits < TAKE_SPINS) {
+                waits++;
+                Thread.onSpinWait();
+            } else {
+                int shift = Math.min(waits++ - TAKE_SPINS, 10);
+                LockSupport.parkNanos(Math.min(1_000L << shift, MAX_TAKE_PARK_NANOS));
+            }
+        }
+    }
+
+    private boolean usable(Entry entry) {
+        long now = System.nanoTime();
+        if (expired(entry, now)) {
+            return false;
+        }
+        if (now - entry.lastUsed < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            return entry.connection.isValid((int) this.config.validationTimeout().toSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.createdAt >= this.config.maxLifetime().toNanos();
+    }
+
+    /**
+     * Opens a physical connection. The caller must already have reserved a slot in {@code total}.
+     */
+    private Entry open() throws SQLException {
+        try {
+            return new Entry(DriverManager.getConnection(this.url, this.user, this.password));
+        } catch (SQLException | RuntimeException e) {
+            this.total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void discard(Entry entry) {
+        this.total.decrementAndGet();
+        try {
+            this.discardListener.accept(entry.connection);
+            entry.connection.close();
+        } catch (SQLException ignored) {
+            // A conexão já está sendo descartada; não há nada a recuperar.
+        }
+    }
+
+    /**
+     * Opens connections until the pool holds at least {@link PoolConfig#minSize()}.
+     */
+    private void fill() throws SQLException {
+        while (!this.closed) {
+            int current = this.total.get();
+            if (current >= this.config.minSize()) {
+                return;
+            }
+            if (this.total.compareAndSet(current, current + 1)) {
+                this.idle.offerLast(open());
+            }
+        }
+    }
+
+    private void housekeep() {
+        long now = System.nanoTime();
+        long idleTimeout = this.config.idleTimeout().toNanos();
+
+        for (Entry entry : this.idle) {
+            boolean retire = expired(entry, now)
+                    || (now - entry.lastUsed >= idleTimeout && this.total.get() > this.config.minSize());
+            // remove() falha se outra thread acabou de pegar a conexão.
+            if (retire && this.idle.remove(entry)) {
+                discard(entry);
+            }
+        }
+
+        try {
+            fill();
+        } catch (SQLException e) {
+            LOG.warning(() -> "Falha ao repor as conexões mínimas do pool: " + e.getMessage());
+        }
+    }
+
+    private void closeIdle() {
+        Entry entry;
+        while ((entry = this.idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final Connection connection;
+        private final long createdAt;
+        private volatile long lastUsed;
+
+        private Entry(Connection connection) {
+            this.connection = connection;
+            this.createdAt = System.nanoTime();
+            this.lastUsed = this.createdAt;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package org.db.connection;
 
+import org.db.interfaces.IDbMetrics.Operation;
+
 import java.sql.*;
+import java.util.logging.Logger;
 
 /**
  * MySQL-specific implementation of a database connection.
@@ -9,55 +12,74 @@ import java.sql.*;
  */
 public class DbConnection extends ADbConnection {
 
+    private static final Logger LOG = Logger.getLogger(DbConnection.class.getName());
+
     /**
      * Constructor that passes the connection details to the abstract parent class.
+     * Unless the URL says otherwise, MySQL URLs get {@code rewriteBatchedStatements=true}, so each
+     * batch sent by {@link #insertAll(String, Iterable)} becomes a single multi-row INSERT.
      * @param URL The full JDBC URL for the MySQL database.
      * @param USER The database username.
      * @param PASSWORD The database user password.
      */
     public DbConnection(String URL, String USER, String PASSWORD) {
-        super(URL, USER, PASSWORD); // Chama o construtor da classe pai (ADbConnection)
+        super(tuneUrl(URL), USER, PASSWORD); // Chama o construtor da classe pai (ADbConnection)
+    }
+
+    /**
+     * Adds the Connector/J properties this class relies on to a MySQL JDBC URL.
+     * Other URLs (or a null URL, rejected by the parent constructor) are returned unchanged.
+     */
+    private static String tuneUrl(String url) {
+        if (!isMySqlUrl(url)) {
+            return url;
+        }
+        return withUrlProperty(url, "rewriteBatchedStatements", "true");
     }
 
     @Override
     public Boolean connect() {
         if (isConnected()) {
-            System.out.println("A conexão já está ativa.");
+            LOG.fine("A conexão já está ativa.");
             return true;
         }
 
+        long start = System.nanoTime();
         try {
-            System.out.println("Conectando ao banco de dados MySQL...");
+            LOG.fine("Conectando ao banco de dados MySQL...");
             // As propriedades url, user e password são herdadas da classe pai
-            this.connection = DriverManager.getConnection(this.url, this.user, this.password);
-            System.out.println("Conexão bem-sucedida!");
-            try {
-                this.check();
-
-            } catch (RuntimeException e) {
-                throw new RuntimeException("Could not check to the database", e);
-            }
+            this.connection = DriverManager.getConnection(connectionUrl(), this.user, this.password);
+            record(Operation.CONNECT, start, 0, true);
+            LOG.info("Conexão bem-sucedida!");
             return true;
         } catch (SQLException e) {
-            System.err.println("Falha na conexão com o banco de dados.");
+            record(Operation.CONNECT, start, 0, false);
+            logFailure(e, () -> "Falha na conexão com o banco de dados.");
             throw new RuntimeException("Could not connect to the database", e);
         }
     }
 
     @Override
     public Boolean disconnect() {
+        drainWriteBehind();
         if (!isConnected()) {
-            System.out.println("Nenhuma conexão ativa para fechar.");
+            LOG.fine("Nenhuma conexão ativa para fechar.");
             return true;
         }
+        long start = System.nanoTime();
         try {
-            System.out.println("Fechando a conexão com o banco de dados...");
+            LOG.fine("Fechando a conexão com o banco de dados...");
+            StatementCache cache = this.statementCache;
+            if (cache != null) {
+                cache.invalidate(this.connection);
+            }
             this.connection.close();
-            System.out.println("Conexão fechada com sucesso.");
+            record(Operation.DISCONNECT, start, 0, true);
+            LOG.info("Conexão fechada com sucesso.");
             return true;
         } catch (SQLException e) {
-            System.err.println("Erro ao fechar a conexão com o banco de dados.");
-            e.notify();
+            record(Operation.DISCONNECT, start, 0, false);
+            logFailure(e, () -> "Erro ao fechar a conexão com o banco de dados.");
             return false;
         }
     }
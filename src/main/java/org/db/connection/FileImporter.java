@@ -0,0 +1,293 @@
+package org.db.connection;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.db.interfaces.IDbMetrics.Operation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Imports (nome, email) rows from a CSV or NDJSON file.
+ * The file is parsed incrementally through a memory-mapped window, so it never has to fit in memory.
+ * On MySQL with local infile enabled ({@link ADbConnection#enableLocalInfile()}), the parsed rows are
+ * streamed to the server with {@code LOAD DATA LOCAL INFILE} through Connector/J's
+ * {@link JdbcStatement#setLocalInfileInputStream(InputStream)}, without a temporary file.
+ * Otherwise, or when the server refuses local infile, the rows are written with batched inserts
+ * by a {@link BulkLoader}.
+ * @version 1.0.0
+ */
+public class FileImporter {
+
+    private static final Logger LOG = Logger.getLogger(FileImporter.class.getName());
+
+    /**
+     * Supported file formats.
+     */
+    public enum Format {
+        /** "nome,email" per line, with an optional header; fields may be double-quoted. */
+        CSV,
+        /** One JSON object with "nome" and "email" string members per line. */
+        NDJSON;
+
+        /**
+         * @return NDJSON for .ndjson, .jsonl and .json files, CSV otherwise.
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * How the rows reached the database.
+     */
+    public enum Method {
+        LOAD_DATA,
+        INSERTS
+    }
+
+    /**
+     * Outcome of an import.
+     * @param method How the rows were written.
+     * @param lines Non-blank lines read, including the header and rejected lines.
+     * @param rows Valid rows sent to the database.
+     * @param inserted Rows the database inserted.
+     * @param rejected Lines that could not be parsed into a valid row.
+     * @param elapsed Time the whole import took.
+     */
+    public record Report(Method method, long lines, long rows, long inserted, long rejected, Duration elapsed) {
+
+        /**
+         * @return Valid rows the database did not insert, e.g. duplicated emails.
+         */
+        public long skipped() {
+            return this.rows - this.inserted;
+        }
+
+        /**
+         * @return Valid rows processed per second of elapsed time.
+         */
+        public double rowsPerSecond() {
+            long nanos = this.elapsed.toNanos();
+            return nanos == 0 ? 0 : this.rows * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Report{method=%s, lines=%d, rows=%d, inserted=%d, skipped=%d, rejected=%d, elapsed=%d ms, rows/s=%.0f}",
+                    this.method, this.lines, this.rows, this.inserted, skipped(), this.rejected, this.elapsed.toMillis(), rowsPerSecond());
+        }
+    }
+
+    private final ADbConnection db;
+
+    /**
+     * @param db The connection the rows are written to.
+     */
+    public FileImporter(ADbConnection db) {
+        if (db == null) {
+            throw new IllegalArgumentException("Connection cannot be null.");
+        }
+        this.db = db;
+    }
+
+    /**
+     * Imports a file, choosing the format from its extension.
+     */
+    public Report importFile(String table, Path file) {
+        return importFile(table, file, Format.of(file));
+    }
+
+    /**
+     * Imports a file.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param file The file to read.
+     * @param format The file format.
+     * @return Rows read, inserted and rejected, and the throughput.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @throws RuntimeException if the connection is not active or the import fails.
+     */
+    public Report importFile(String table, Path file, Format format) {
+        if (!this.db.isConnected()) {
+            throw new RuntimeException("Connection is not active. Please call connect() before importing.");
+        }
+
+        long start = System.nanoTime();
+        if (localInfileEnabled()) {
+            try {
+                Report report = loadData(table, file, format, start);
+                LOG.info(() -> "Importação de " + file + " concluída: " + report);
+                return report;
+            } catch (SQLException e) {
+                if (!isLocalInfileRefused(e)) {
+                    ADbConnection.logFailure(e, () -> "Falha no LOAD DATA de " + file + ".");
+                    throw new RuntimeException("Could not import " + file, e);
+                }
+                LOG.warning(() -> "O servidor recusou LOAD DATA LOCAL INFILE (" + e.getErrorCode() + "); usando inserções em lotes.");
+            }
+        }
+
+        Report report = insert(table, file, format, start);
+        LOG.info(() -> "Importação de " + file + " concluída: " + report);
+        return report;
+    }
+
+    /**
+     * @return true if the connection is to MySQL and its URL allows {@code LOAD DATA LOCAL INFILE}.
+     */
+    public boolean localInfileEnabled() {
+        return ADbConnection.isMySqlUrl(this.db.url)
+                && ADbConnection.hasUrlProperty(this.db.connectionUrl(), "allowLoadLocalInfile", "true");
+    }
+
+    private Report loadData(String table, Path file, Format format, long start) throws SQLException {
+        String sql = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + table + " CHARACTER SET utf8mb4 "
+                + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (nome, email)";
+
+        try (MappedRowReader reader = open(file, format);
+             ADbConnection.Lease lease = this.db.lease();
+             Statement statement = lease.connection().createStatement()) {
+
+            this.db.resolveTable(lease.connection(), table);
+            TsvStream stream = new TsvStream(reader);
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(stream);
+            long inserted;
+            try {
+                inserted = statement.executeLargeUpdate(sql);
+            } catch (SQLException e) {
+                this.db.recordFailure(e);
+                this.db.record(Operation.INSERT_ALL, start, 0, false);
+                throw e;
+            }
+            this.db.record(Operation.INSERT_ALL, start, inserted, true);
+            return new Report(Method.LOAD_DATA, reader.getLines(), stream.getRows(), inserted, reader.getRejected(),
+                    Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+
+    private Report insert(String table, Path file, Format format, long start) {
+        try (MappedRowReader reader = open(file, format)) {
+            BulkLoader.Report loaded = new BulkLoader(this.db).load(table, reader);
+            return new Report(Method.INSERTS, reader.getLines(), loaded.rows(), loaded.inserted(), reader.getRejected(),
+                    Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+
+    private static MappedRowReader open(Path file, Format format) {
+        try {
+            return new MappedRowReader(file, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + file, e);
+        }
+    }
+
+    /**
+     * @return true when the server (error 1148 or 3948) or the driver refused to read local data.
+     */
+    private static boolean isLocalInfileRefused(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            int code = current.getErrorCode();
+            if (code == 1148 || code == 3948 || code == 2068) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encodes rows as the tab-separated text LOAD DATA expects, one buffer at a time, as the driver reads it.
+     */
+    private static final class TsvStream extends InputStream {
+        private static final int CHUNK = 64 * 1024;
+
+        private final Iterator<Map.Entry<String, String>> rows;
+        private byte[] buffer = new byte[CHUNK + 512];
+        private int position = 0;
+        private int length = 0;
+        private long count = 0;
+
+        private TsvStream(Iterator<Map.Entry<String, String>> rows) {
+            this.rows = rows;
+        }
+
+        private long getRows() {
+            return this.count;
+        }
+
+        @Override
+        public int read() {
+            if (this.position == this.length && !fill()) {
+                return -1;
+            }
+            return this.buffer[this.position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int size) {
+            if (size == 0) {
+                return 0;
+            }
+            if (this.position == this.length && !fill()) {
+                return -1;
+            }
+            int copied = Math.min(size, this.length - this.position);
+            System.arraycopy(this.buffer, this.position, target, offset, copied);
+            this.position += copied;
+            return copied;
+        }
+
+        private boolean fill() {
+            this.position = 0;
+            this.length = 0;
+            while (this.length < CHUNK && this.rows.hasNext()) {
+                Map.Entry<String, String> row = this.rows.next();
+                append(row.getKey());
+                put((byte) '\t');
+                append(row.getValue());
+                put((byte) '\n');
+                this.count++;
+            }
+            return this.length > 0;
+        }
+
+        private void append(String value) {
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                switch (b) {
+                    case '\\' -> escape((byte) '\\');
+                    case '\t' -> escape((byte) 't');
+                    case '\n' -> escape((byte) 'n');
+                    case '\r' -> escape((byte) 'r');
+                    case 0 -> escape((byte) '0');
+                    default -> put(b);
+                }
+            }
+        }
+
+        private void escape(byte b) {
+            put((byte) '\\');
+            put(b);
+        }
+
+        private void put(byte b) {
+            if (this.length == this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+            }
+            this.buffer[this.length++] = b;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.db.connection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Group commit for a stream of single-row inserts.
+ * The session holds one connection with auto-commit disabled and commits every {@code everyStatements}
+ * statements, or {@code maxDelay} after the oldest uncommitted one, whichever comes first, so the cost of
+ * each commit (and of the fsync behind it) is shared by the whole group.
+ * Statements since the last commit are remembered; if the server aborts the transaction with a deadlock
+ * or serialization failure, they are replayed in a new transaction.
+ * <p>
+ * Sessions are thread-safe. With a single {@link DbConnection}, the session's transaction shares the
+ * connection with every other caller; use a {@link PooledDbConnection} when others write concurrently.
+ * @version 1.0.0
+ */
+public class GroupCommitSession implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(GroupCommitSession.class.getName());
+
+    private record Statement(String table, String nome, String email) {
+    }
+
+    private final ADbConnection db;
+    private final Connection connection;
+    private final int everyStatements;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService timer;
+    private final List<Statement> uncommitted = new ArrayList<>();
+    private long firstUncommittedAt = 0;
+    private long commits = 0;
+    private boolean closed = false;
+
+    GroupCommitSession(ADbConnection db, int everyStatements, Duration maxDelay) throws SQLException {
+        if (everyStatements <= 0 || maxDelay == null || maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("Group commit needs a positive statement count and delay.");
+        }
+        this.db = db;
+        this.everyStatements = everyStatements;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.connection = db.acquire();
+        try {
+            this.connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            db.release(this.connection);
+            throw e;
+        }
+
+        long period = Math.max(1, maxDelay.toMillis() / 2);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-group-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.scheduleWithFixedDelay(this::commitIfDue, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Inserts a row in the current group. The row becomes durable at the next group commit.
+     * @return true if the statement was executed, false otherwise.
+     */
+    public synchronized boolean insert(String table, String nome, String email) {
+        if (this.closed) {
+            LOG.warning("A sessão de group commit está fechada.");
+            return false;
+        }
+
+        Statement statement = new Statement(table, nome, email);
+        try {
+            execute(statement);
+        } catch (SQLException e) {
+            if (!ADbConnection.isRetryable(e)) {
+                ADbConnection.logFailure(e, () -> "Falha na inserção em group commit.");
+                return false;
+            }
+            this.uncommitted.add(statement);
+            if (!recover(false)) {
+                return false;
+            }
+            return this.uncommitted.size() < this.everyStatements || commit();
+        }
+
+        if (this.uncommitted.isEmpty()) {
+            this.firstUncommittedAt = System.nanoTime();
+        }
+        this.uncommitted.add(statement);
+        if (this.uncommitted.size() >= this.everyStatements) {
+            return commit();
+        }
+        return true;
+    }
+
+    /**
+     * Commits the pending group now.
+     * @return true if the commit succeeded (or there was nothing to commit).
+     */
+    public synchronized boolean commit() {
+        if (this.uncommitted.isEmpty()) {
+            return true;
+        }
+        try {
+            this.connection.commit();
+            this.uncommitted.clear();
+            this.commits++;
+            return true;
+        } catch (SQLException e) {
+            if (ADbConnection.isRetryable(e)) {
+                return recover(true);
+            }
+            int size = this.uncommitted.size();
+            ADbConnection.logFailure(e, () -> "Falha no group commit de " + size + " comandos.");
+            rollbackQuietly();
+            this.uncommitted.clear();
+            return false;
+        }
+    }
+
+    /**
+     * @return The number of statements executed but not committed yet.
+     */
+    public synchronized int getPending() {
+        return this.uncommitted.size();
+    }
+
+    /**
+     * @return The number of group commits performed.
+     */
+    public synchronized long getCommits() {
+        return this.commits;
+    }
+
+    /**
+     * Commits whatever is pending, restores auto-commit and gives the connection back.
+     */
+    @Override
+    public void close() {
+        this.timer.shutdownNow();
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            commit();
+            this.closed = true;
+            try {
+                this.connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                LOG.warning(() -> "Falha ao restaurar o auto-commit: " + e.getMessage());
+            } finally {
+                this.db.release(this.connection);
+            }
+        }
+    }
+
+    private synchronized void commitIfDue() {
+        if (!this.closed && !this.uncommitted.isEmpty()
+                && System.nanoTime() - this.firstUncommittedAt >= this.maxDelayNanos) {
+            commit();
+        }
+    }
+
+    private void execute(Statement statement) throws SQLException {
+        try (ADbConnection.Prepared prepared = this.db.prepare(this.connection, this.db.insertSql(this.connection, statement.table()))) {
+            PreparedStatement preparedStatement = prepared.statement();
+            preparedStatement.setString(1, statement.nome());
+            preparedStatement.setString(2, statement.email());
+            prepared.executeUpdate();
+            this.db.invalidateCached(statement.table(), statement.email());
+        }
+    }
+
+    /**
+     * The server rolled the transaction back after a deadlock or serialization failure:
+     * run the pending statements again in a new transaction, and commit them when {@code commitAfter} is set.
+     */
+    private boolean recover(boolean commitAfter) {
+        for (int attempt = 0; attempt < this.db.getTransactionRetries(); attempt++) {
+            rollbackQuietly();
+            ADbConnection.backoff(attempt);
+            try {
+                this.firstUncommittedAt = System.nanoTime();
+                for (Statement statement : this.uncommitted) {
+                    execute(statement);
+                }
+                if (commitAfter) {
+                    this.connection.commit();
+                    this.uncommitted.clear();
+                    this.commits++;
+                }
+                return true;
+            } catch (SQLException e) {
+                if (!ADbConnection.isRetryable(e)) {
+                    ADbConnection.logFailure(e, () -> "Falha ao reexecutar o grupo após conflito.");
+                    break;
+                }
+            }
+        }
+        int size = this.uncommitted.size();
+        LOG.warning(() -> "Group commit abandonado; " + size + " comandos desfeitos.");
+        rollbackQuietly();
+        this.uncommitted.clear();
+        return false;
+    }
+
+    private void rollbackQuietly() {
+        try {
+            this.connection.rollback();
+        } catch (SQLException e) {
+            LOG.warning(() -> "Falha ao desfazer o grupo: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package org.db.connection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.logging.Logger;
+
+/**
+ * Reads (nome, email) rows from a CSV or NDJSON file through a memory-mapped window that slides over the file,
+ * so only {@link #WINDOW_SIZE} bytes are mapped at a time however large the file is.
+ * Lines are parsed in place on the mapped bytes; only the two field values are copied out.
+ * Lines that cannot be parsed are skipped and counted in {@link #getRejected()}.
+ * @version 1.0.0
+ */
+final class MappedRowReader implements Iterator<Map.Entry<String, String>>, AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(MappedRowReader.class.getName());
+
+    /**
+     * Bytes mapped at a time. A line longer than this grows the window.
+     */
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Longest accepted value, matching the VARCHAR(100) columns of the 'usuarios' table defined in {@link SchemaRegistry}.
+     */
+    static final int MAX_FIELD_LENGTH = 100;
+
+    private final FileChannel channel;
+    private final FileImporter.Format format;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+    private int windowSize;
+    private long position = 0;
+
+    private byte[] scratch = new byte[256];
+    private Map.Entry<String, String> next = null;
+    private long lines = 0;
+    private long rejected = 0;
+
+    // Posição e fim da linha JSON sendo lida.
+    private int cursor;
+    private int limit;
+
+    MappedRowReader(Path file, FileImporter.Format format) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.format = format;
+        this.size = this.channel.size();
+        this.windowSize = WINDOW_SIZE;
+        map(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (this.next == null && this.position < this.size) {
+                readLine();
+            }
+            return this.next != null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Map.Entry<String, String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<String, String> current = this.next;
+        this.next = null;
+        return current;
+    }
+
+    /**
+     * @return Non-blank lines read so far, including the header and rejected lines.
+     */
+    long getLines() {
+        return this.lines;
+    }
+
+    /**
+     * @return Lines that could not be parsed into a valid (nome, email) row.
+     */
+    long getRejected() {
+        return this.rejected;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        this.channel.close();
+    }
+
+    /**
+     * Finds the next line in the mapped window, remapping from the start of the line when it runs past the window.
+     */
+    private void readLine() throws IOException {
+        while (true) {
+            int start = (int) (this.position - this.windowStart);
+            int limit = this.window.limit();
+            int end = start;
+            while (end < limit && this.window.get(end) != '\n') {
+                end++;
+            }
+
+            boolean atEof = this.windowStart + limit >= this.size;
+            if (end == limit && !atEof) {
+                if (start == 0) {
+                    // A linha não cabe na janela inteira: dobra a janela.
+                    this.windowSize = (int) Math.min(Integer.MAX_VALUE - 8, this.windowSize * 2L);
+                }
+                map(this.position);
+                continue;
+            }
+
+            this.position = this.windowStart + Math.min(end + 1, limit);
+            int lineEnd = end > start && this.window.get(end - 1) == '\r' ? end - 1 : end;
+            if (!isBlank(start, lineEnd)) {
+                this.lines++;
+                parse(start, lineEnd);
+            }
+            return;
+        }
+    }
+
+    private void map(long from) throws IOException {
+        this.windowStart = from;
+        long length = Math.min(this.windowSize, this.size - from);
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = this.window.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void parse(int start, int end) {
+        String[] fields = this.format == FileImporter.Format.CSV ? parseCsv(start, end) : parseJson(start, end);
+        if (fields == null) {
+            reject();
+            return;
+        }
+        if (this.lines == 1 && this.format == FileImporter.Format.CSV
+                && fields[0].equalsIgnoreCase("nome") && fields[1].equalsIgnoreCase("email")) {
+            return;
+        }
+        String nome = fields[0].strip();
+        String email = fields[1].strip();
+        if (nome.isEmpty() || email.isEmpty() || nome.length() > MAX_FIELD_LENGTH || email.length() > MAX_FIELD_LENGTH
+                || email.indexOf('@') <= 0) {
+            reject();
+            return;
+        }
+        this.next = Map.entry(nome, email);
+    }
+
+    private void reject() {
+        this.rejected++;
+        long line = this.lines;
+        LOG.fine(() -> "Linha " + line + " rejeitada: esperado (nome, email) válidos.");
+    }
+
+    // --- CSV (RFC 4180, sem quebras de linha dentro de aspas) ---
+
+    /**
+     * @return The two fields of a "nome,email" line, or null if the line has another shape.
+     */
+    private String[] parseCsv(int start, int end) {
+        String[] fields = new String[2];
+        int field = 0;
+        int i = start;
+        while (true) {
+            if (field == 2) {
+                return null;
+            }
+            int length = 0;
+            if (i < end && this.window.get(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= end) {
+                        return null;
+                    }
+                    byte b = this.window.get(i++);
+                    if (b == '"') {
+                        if (i < end && this.window.get(i) == '"') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    length = append(length, b);
+                }
+                if (i < end && this.window.get(i) != ',') {
+                    return null;
+                }
+            } else {
+                while (i < end && this.window.get(i) != ',') {
+                    length = append(length, this.window.get(i++));
+                }
+            }
+            fields[field++] = new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+            if (i >= end) {
+                return field == 2 ? fields : null;
+            }
+            i++; // vírgula
+        }
+    }
+
+    // --- NDJSON: um objeto por linha, com os campos "nome" e "email" ---
+
+    /**
+     * @return The "nome" and "email" string members of a one-line JSON object, or null if the line is not one.
+     */
+    private String[] parseJson(int start, int end) {
+        this.cursor = start;
+        this.limit = end;
+        String[] fields = new String[2];
+        try {
+            skipSpaces();
+            expect('{');
+            skipSpaces();
+            if (peek() == '}') {
+                return null;
+            }
+            while (true) {
+                skipSpaces();
+                String key = readString();
+                skipSpaces();
+                expect(':');
+                skipSpaces();
+                if ("nome".equals(key) || "email".equals(key)) {
+                    if (peek() != '"') {
+                        return null;
+                    }
+                    fields["nome".equals(key) ? 0 : 1] = readString();
+                } else {
+                    skipValue();
+                }
+                skipSpaces();
+                byte b = take();
+                if (b == '}') {
+                    break;
+                }
+                if (b != ',') {
+                    return null;
+                }
+            }
+            skipSpaces();
+            if (this.cursor != this.limit) {
+                return null;
+            }
+        } catch (IllegalStateException e) {
+            return null;
+        }
+        return fields[0] == null || fields[1] == null ? null : fields;
+    }
+
+    private String readString() {
+        expect('"');
+        int length = 0;
+        while (true) {
+            byte b = take();
+            if (b == '"') {
+                return new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            if (b != '\\') {
+                length = append(length, b);
+                continue;
+            }
+            byte escaped = take();
+            switch (escaped) {
+                case '"', '\\', '/' -> length = append(length, escaped);
+                case 'b' -> length = append(length, (byte) '\b');
+                case 'f' -> length = append(length, (byte) '\f');
+                case 'n' -> length = append(length, (byte) '\n');
+                case 'r' -> length = append(length, (byte) '\r');
+                case 't' -> length = append(length, (byte) '\t');
+                case 'u' -> length = appendCodeUnit(length, readHex());
+                default -> throw new IllegalStateException();
+            }
+        }
+    }
+
+    /**
+     * Appends a \\uXXXX escape as UTF-8, combining it with a following low surrogate escape when needed.
+     */
+    private int appendCodeUnit(int length, char unit) {
+        int codePoint = unit;
+        if (Character.isHighSurrogate(unit)) {
+            if (take() != '\\' || take() != 'u') {
+                throw new IllegalStateException();
+            }
+            char low = readHex();
+            if (!Character.isLowSurrogate(low)) {
+                throw new IllegalStateException();
+            }
+            codePoint = Character.toCodePoint(unit, low);
+        } else if (Character.isLowSurrogate(unit)) {
+            throw new IllegalStateException();
+        }
+        for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8)) {
+            length = append(length, b);
+        }
+        return length;
+    }
+
+    private char readHex() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(take(), 16);
+            if (digit < 0) {
+                throw new IllegalStateException();
+            }
+            value = value * 16 + digit;
+        }
+        return (char) value;
+    }
+
+    /**
+     * Skips a value that is not needed: a string, number, literal, or nested object/array.
+     */
+    private void skipValue() {
+        int depth = 0;
+        do {
+            byte b = peek();
+            if (b == '"') {
+                readString();
+                continue;
+            }
+            take();
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+                if (depth < 0) {
+                    throw new IllegalStateException();
+                }
+            } else if (depth == 0 && b == ',') {
+                throw new IllegalStateException();
+            }
+        } while (depth > 0 || (this.cursor < this.limit && peek() != ',' && peek() != '}'));
+    }
+
+    private void skipSpaces() {
+        while (this.cursor < this.limit) {
+            byte b = this.window.get(this.cursor);
+            if (b != ' ' && b != '\t') {
+                return;
+            }
+            this.cursor++;
+        }
+    }
+
+    private byte peek() {
+        if (this.cursor >= this.limit) {
+            throw new IllegalStateException();
+        }
+        return this.window.get(this.cursor);
+    }
+
+    private byte take() {
+        byte b = peek();
+        this.cursor++;
+        return b;
+    }
+
+    private void expect(char c) {
+        if (take() != c) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private int append(int length, byte b) {
+        if (length == this.scratch.length) {
+            this.scratch = Arrays.copyOf(this.scratch, length * 2);
+        }
+        this.scratch[length] = b;
+        return length + 1;
+    }
+}
@@ -0,0 +1,51 @@
+package org.db.connection;
+
+import java.time.Duration;
+
+/**
+ * Sizing and lifetime settings for a {@link ConnectionPool}.
+ * @param minSize Number of connections kept open even when idle.
+ * @param maxSize Upper bound on open connections.
+ * @param connectionTimeout How long a caller waits for a connection when the pool is exhausted.
+ * @param idleTimeout How long a connection above {@code minSize} may stay idle before it is closed.
+ * @param maxLifetime Age after which a connection is retired, even if it is healthy.
+ * @param validationTimeout Timeout given to {@link java.sql.Connection#isValid(int)} when a connection is validated.
+ * @version 1.0.0
+ */
+public record PoolConfig(int minSize,
+                         int maxSize,
+                         Duration connectionTimeout,
+                         Duration idleTimeout,
+                         Duration maxLifetime,
+                         Duration validationTimeout) {
+
+    public PoolConfig {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool sizes must satisfy 0 <= minSize <= maxSize and maxSize > 0.");
+        }
+        if (connectionTimeout == null || idleTimeout == null || maxLifetime == null || validationTimeout == null) {
+            throw new IllegalArgumentException("Pool timeouts cannot be null.");
+        }
+        if (validationTimeout.toSeconds() < 1) {
+            throw new IllegalArgumentException("validationTimeout must be at least one second.");
+        }
+    }
+
+    /**
+     * @return 2 to 10 connections, 30s wait, 10min idle timeout, 30min max lifetime and 5s validation timeout.
+     */
+    public static PoolConfig defaults() {
+        return new PoolConfig(2, 10,
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(10),
+                Duration.ofMinutes(30),
+                Duration.ofSeconds(5));
+    }
+
+    /**
+     * @return A copy of this configuration with different pool sizes.
+     */
+    public PoolConfig withSize(int minSize, int maxSize) {
+        return new PoolConfig(minSize, maxSize, connectionTimeout, idleTimeout, maxLifetime, validationTimeout);
+    }
+}
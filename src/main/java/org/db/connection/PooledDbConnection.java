@@ -0,0 +1,192 @@
+package org.db.connection;
+
+import org.db.interfaces.IDbMetrics.Operation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+/**
+ * MySQL connection backed by a {@link ConnectionPool}.
+ * Each {@code insert}, {@code insertAll}, {@code select} and {@code check} borrows its own connection,
+ * so one instance can be shared by many worker threads.
+ * @version 1.0.0
+ */
+public class PooledDbConnection extends DbConnection {
+
+    private static final Logger LOG = Logger.getLogger(PooledDbConnection.class.getName());
+
+    private final PoolConfig config;
+    private volatile ConnectionPool pool = null;
+
+    /**
+     * @param URL The full JDBC URL for the MySQL database.
+     * @param USER The database username.
+     * @param PASSWORD The database user password.
+     * @param config Pool sizing and timeouts.
+     */
+    public PooledDbConnection(String URL, String USER, String PASSWORD, PoolConfig config) {
+        super(URL, USER, PASSWORD);
+        if (config == null) {
+            throw new IllegalArgumentException("Pool configuration cannot be null.");
+        }
+        this.config = config;
+    }
+
+    /**
+     * Creates a pool with {@link PoolConfig#defaults()}.
+     */
+    public PooledDbConnection(String URL, String USER, String PASSWORD) {
+        this(URL, USER, PASSWORD, PoolConfig.defaults());
+    }
+
+    /**
+     * Opens the pool. Tables are validated on first use, not here.
+     * @return true if the pool is ready.
+     */
+    @Override
+    public synchronized Boolean connect() {
+        if (isConnected()) {
+            LOG.fine("O pool de conexões já está ativo.");
+            return true;
+        }
+
+        long start = System.nanoTime();
+        try {
+            LOG.fine(() -> "Abrindo pool de conexões MySQL (" + this.config.minSize() + "-" + this.config.maxSize() + ")...");
+            this.pool = new ConnectionPool(connectionUrl(), this.user, this.password, this.config);
+            this.pool.setDiscardListener(this::forgetStatements);
+            record(Operation.CONNECT, start, 0, true);
+            LOG.info("Pool de conexões aberto com sucesso!");
+            return true;
+        } catch (SQLException e) {
+            record(Operation.CONNECT, start, 0, false);
+            logFailure(e, () -> "Falha ao abrir o pool de conexões.");
+            throw new RuntimeException("Could not connect to the database", e);
+        }
+    }
+
+    /**
+     * Closes the pool. Connections still borrowed are closed when they are given back.
+     * @return true once the pool is closed.
+     */
+    @Override
+    public synchronized Boolean disconnect() {
+        drainWriteBehind();
+        if (!isConnected()) {
+            LOG.fine("Nenhum pool de conexões ativo para fechar.");
+            return true;
+        }
+        long start = System.nanoTime();
+        LOG.fine("Fechando o pool de conexões...");
+        this.pool.close();
+        StatementCache cache = this.statementCache;
+        if (cache != null) {
+            cache.clear();
+        }
+        record(Operation.DISCONNECT, start, 0, true);
+        LOG.info("Pool de conexões fechado com sucesso.");
+        return true;
+    }
+
+    @Override
+    public boolean isConnected() {
+        ConnectionPool current = this.pool;
+        return current != null && !current.isClosed();
+    }
+
+    /**
+     * Borrows a connection from the pool for direct use.
+     * Calling {@code close()} on the returned connection gives it back to the pool instead of closing it.
+     * @return A pooled connection; the caller must close it.
+     */
+    @Override
+    public Connection getConnection() {
+        if (!isConnected()) {
+            throw new RuntimeException("Connection is not active. Please call connect() before getting the connection.");
+        }
+        try {
+            return returnOnClose(this.pool, this.pool.borrow());
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not borrow a connection from the pool", e);
+        }
+    }
+
+    @Override
+    protected Connection acquire() throws SQLException {
+        ConnectionPool current = this.pool;
+        if (current == null) {
+            throw new SQLException("Connection is not active. Please call connect() first.");
+        }
+        return current.borrow();
+    }
+
+    @Override
+    protected void release(Connection connection) {
+        ConnectionPool current = this.pool;
+        if (current != null) {
+            current.giveBack(connection);
+        }
+    }
+
+    /**
+     * Forgets the statements cached for a connection a pool is discarding.
+     */
+    protected void forgetStatements(Connection connection) {
+        StatementCache cache = this.statementCache;
+        if (cache != null) {
+            cache.invalidate(connection);
+        }
+    }
+
+    public PoolConfig getPoolConfig() {
+        return this.config;
+    }
+
+    /**
+     * @return The underlying pool, or null before {@link #connect()}.
+     */
+    public ConnectionPool getPool() {
+        return this.pool;
+    }
+
+    /**
+     * Wraps a borrowed connection so that {@code close()} returns it to the pool exactly once.
+     */
+    private static Connection returnOnClose(ConnectionPool pool, Connection connection) {
+        boolean[] returned = {false};
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    synchronized (returned) {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                if (!returned[0]) {
+                                    returned[0] = true;
+                                    pool.giveBack(connection);
+                                }
+                                return null;
+                            }
+                            case "isClosed" -> {
+                                if (returned[0]) {
+                                    return true;
+                                }
+                            }
+                            default -> {
+                                if (returned[0]) {
+                                    throw new SQLException("Connection was already returned to the pool.");
+                                }
+                            }
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,320 @@
+package org.db.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * A {@link PooledDbConnection} on the primary that sends reads to replicas.
+ * Writes ({@code insert*}, {@code upsert}, {@code check}, transactions) always run on the primary pool.
+ * Reads ({@code select}, {@code stream}, {@code findBy*}) borrow from the healthy replica with the fewest
+ * outstanding reads (least-outstanding-requests, ties broken at random), and fall back to the primary when
+ * no replica is available. A replica that cannot hand out a connection, or whose connection fails, is
+ * skipped for {@link #REPLICA_RETRY_DELAY}.
+ * With a read-your-writes window ({@link #setReadYourWrites(Duration)}), reads on a thread that wrote within
+ * the window go to the primary, so the thread sees its own writes despite replication lag.
+ * @version 1.0.0
+ */
+public class ReplicatedDbConnection extends PooledDbConnection {
+
+    private static final Logger LOG = Logger.getLogger(ReplicatedDbConnection.class.getName());
+
+    /**
+     * How long a replica that failed is left out of the rotation before it is tried again.
+     */
+    public static final Duration REPLICA_RETRY_DELAY = Duration.ofSeconds(5);
+
+    /**
+     * Snapshot of one replica.
+     * @param url The replica's JDBC URL.
+     * @param healthy false while the replica is left out of the rotation.
+     * @param outstanding Reads currently running on the replica.
+     * @param reads Reads sent to the replica since {@link #connect()}.
+     */
+    public record ReplicaStatus(String url, boolean healthy, int outstanding, long reads) {
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<Connection, Replica> replicaLeases = new ConcurrentHashMap<>();
+    private final Set<Connection> primaryLeases = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+    private final ThreadLocal<Replica> lastReplica = new ThreadLocal<>();
+    private volatile long readYourWritesNanos = 0;
+
+    /**
+     * @param primaryUrl The JDBC URL of the primary, which receives every write.
+     * @param replicaUrls The JDBC URLs of the read replicas; may be empty.
+     * @param USER The database username, shared by the primary and the replicas.
+     * @param PASSWORD The database user password.
+     * @param config Sizing and timeouts of each pool (one for the primary and one per replica).
+     */
+    public ReplicatedDbConnection(String primaryUrl, List<String> replicaUrls, String USER, String PASSWORD, PoolConfig config) {
+        super(primaryUrl, USER, PASSWORD, config);
+        if (replicaUrls == null) {
+            throw new IllegalArgumentException("Replica URLs cannot be null.");
+        }
+        for (String replicaUrl : replicaUrls) {
+            if (replicaUrl == null || replicaUrl.isBlank()) {
+                throw new IllegalArgumentException("Replica URLs cannot be blank.");
+            }
+            this.replicas.add(new Replica(replicaUrl.strip()));
+        }
+    }
+
+    /**
+     * Creates the pools with {@link PoolConfig#defaults()}.
+     */
+    public ReplicatedDbConnection(String primaryUrl, List<String> replicaUrls, String USER, String PASSWORD) {
+        this(primaryUrl, replicaUrls, USER, PASSWORD, PoolConfig.defaults());
+    }
+
+    /**
+     * Routes a thread's reads to the primary for {@code window} after each of its writes.
+     * @param window How long after a write the thread keeps reading from the primary; null or zero turns it off.
+     */
+    public void setReadYourWrites(Duration window) {
+        this.readYourWritesNanos = window == null || window.isNegative() ? 0 : window.toNanos();
+    }
+
+    public Duration getReadYourWrites() {
+        return Duration.ofNanos(this.readYourWritesNanos);
+    }
+
+    /**
+     * Opens the primary pool, which must succeed, and one pool per replica. A replica that cannot be reached
+     * is left out of the rotation and retried later.
+     * @return true if the primary pool is ready.
+     */
+    @Override
+    public synchronized Boolean connect() {
+        if (isConnected()) {
+            return super.connect();
+        }
+        super.connect();
+        for (Replica replica : this.replicas) {
+            replica.reads.reset();
+            try {
+                replica.open();
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes the replica pools and the primary pool.
+     */
+    @Override
+    public synchronized Boolean disconnect() {
+        Boolean result = super.disconnect();
+        for (Replica replica : this.replicas) {
+            replica.close();
+        }
+        return result;
+    }
+
+    /**
+     * @return One snapshot per replica, in the order given to the constructor.
+     */
+    public List<ReplicaStatus> getReplicas() {
+        long now = System.nanoTime();
+        List<ReplicaStatus> result = new ArrayList<>(this.replicas.size());
+        for (Replica replica : this.replicas) {
+            result.add(new ReplicaStatus(replica.url, replica.isHealthy(now), replica.outstanding.get(), replica.reads.sum()));
+        }
+        return result;
+    }
+
+    @Override
+    protected Connection acquire() throws SQLException {
+        Connection connection = super.acquire();
+        this.primaryLeases.add(connection);
+        return connection;
+    }
+
+    /**
+     * Borrows from the least busy healthy replica, or from the primary when none is available
+     * or the calling thread wrote within the read-your-writes window.
+     */
+    @Override
+    protected Connection acquireRead() throws SQLException {
+        Long written = this.lastWrite.get();
+        if (written != null && System.nanoTime() - written < this.readYourWritesNanos) {
+            return super.acquire();
+        }
+
+        boolean[] tried = new boolean[this.replicas.size()];
+        Replica replica;
+        while ((replica = leastOutstanding(tried)) != null) {
+            replica.outstanding.incrementAndGet();
+            try {
+                Connection connection = replica.borrow();
+                this.replicaLeases.put(connection, replica);
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.outstanding.decrementAndGet();
+                if (!(e instanceof SQLTransientConnectionException) || isConnectionFailure(e)) {
+                    markDown(replica, e);
+                }
+            }
+        }
+        if (!this.replicas.isEmpty()) {
+            LOG.fine("Nenhuma réplica disponível; lendo do primário.");
+        }
+        return super.acquire();
+    }
+
+    @Override
+    protected void release(Connection connection) {
+        Replica replica = this.replicaLeases.remove(connection);
+        if (replica != null) {
+            replica.giveBack(connection);
+            replica.outstanding.decrementAndGet();
+            this.lastReplica.set(replica);
+            return;
+        }
+        if (this.primaryLeases.remove(connection)) {
+            this.lastWrite.set(System.nanoTime());
+        }
+        this.lastReplica.remove();
+        super.release(connection);
+    }
+
+    /**
+     * Leaves a replica out of the rotation when the read that just ran on it lost its connection.
+     */
+    @Override
+    protected void recordFailure(SQLException e) {
+        super.recordFailure(e);
+        Replica replica = this.lastReplica.get();
+        if (replica != null && isConnectionFailure(e)) {
+            markDown(replica, e);
+        }
+    }
+
+    /**
+     * Tables are validated (and created) on the primary, never on a replica.
+     */
+    @Override
+    protected SchemaRegistry.Table resolveTable(Connection connection, String table) throws SQLException {
+        SchemaRegistry.Table cached = this.schema.cached(table);
+        if (cached != null || !this.replicaLeases.containsKey(connection)) {
+            return cached != null ? cached : super.resolveTable(connection, table);
+        }
+        Connection primary = super.acquire();
+        try {
+            return super.resolveTable(primary, table);
+        } finally {
+            super.release(primary);
+        }
+    }
+
+    /**
+     * @return The healthy replica not tried yet with the fewest outstanding reads, scanning from a random
+     *         position so that ties are spread evenly; null if there is none.
+     */
+    private Replica leastOutstanding(boolean[] tried) {
+        int size = this.replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        long now = System.nanoTime();
+        int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+        int best = -1;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            Replica replica = this.replicas.get(index);
+            if (tried[index] || !replica.isHealthy(now)) {
+                continue;
+            }
+            int outstanding = replica.outstanding.get();
+            if (outstanding < bestOutstanding) {
+                best = index;
+                bestOutstanding = outstanding;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        tried[best] = true;
+        return this.replicas.get(best);
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        long now = System.nanoTime();
+        boolean wasHealthy = replica.isHealthy(now);
+        replica.downUntil = now + REPLICA_RETRY_DELAY.toNanos();
+        if (wasHealthy) {
+            logFailure(e, () -> "Réplica " + replica.url + " indisponível; fora da rotação por "
+                    + REPLICA_RETRY_DELAY.toSeconds() + " s.");
+        }
+    }
+
+    /**
+     * One replica and its pool, opened lazily if it was down when {@link #connect()} ran.
+     */
+    private final class Replica {
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder reads = new LongAdder();
+        private volatile ConnectionPool pool = null;
+        private volatile long downUntil = System.nanoTime();
+
+        private Replica(String url) {
+            this.url = url;
+        }
+
+        private boolean isHealthy(long now) {
+            return now - this.downUntil >= 0;
+        }
+
+        private synchronized void open() throws SQLException {
+            if (this.pool == null) {
+                ConnectionPool opened = new ConnectionPool(connectionUrl(this.url), user, password, getPoolConfig());
+                opened.setDiscardListener(ReplicatedDbConnection.this::forgetStatements);
+                this.pool = opened;
+            }
+        }
+
+        private Connection borrow() throws SQLException {
+            ConnectionPool current = this.pool;
+            if (current == null) {
+                open();
+                current = this.pool;
+            }
+            return current.borrow();
+        }
+
+        private void giveBack(Connection connection) {
+            ConnectionPool current = this.pool;
+            if (current != null) {
+                current.giveBack(connection);
+            }
+        }
+
+        private synchronized void close() {
+            if (this.pool != null) {
+                this.pool.close();
+                this.pool = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicatedDbConnection{primary=" + this.url + ", replicas=" + getReplicas() + "}";
+    }
+}
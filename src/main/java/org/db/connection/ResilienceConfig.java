@@ -0,0 +1,79 @@
+package org.db.connection;
+
+import java.time.Duration;
+
+/**
+ * Health checking, reconnect and circuit breaker settings for a {@link ResilientDbConnection}.
+ * @param healthCheckInterval How often an idle connection is checked with {@link java.sql.Connection#isValid(int)}.
+ * @param validationTimeout Timeout given to {@code isValid}, also used as the MySQL connect timeout and as the
+ *                          longest time a replayed read waits for a reconnect already in progress.
+ * @param initialBackoff Delay before the first background reconnect attempt after a failed one.
+ * @param maxBackoff Upper bound of the exponential backoff between reconnect attempts.
+ * @param failureThreshold Consecutive connection failures that open the circuit breaker.
+ * @param openDuration How long the open circuit fails calls fast before letting one trial call through.
+ * @version 1.0.0
+ */
+public record ResilienceConfig(Duration healthCheckInterval,
+                               Duration validationTimeout,
+                               Duration initialBackoff,
+                               Duration maxBackoff,
+                               int failureThreshold,
+                               Duration openDuration) {
+
+    public ResilienceConfig {
+        if (healthCheckInterval == null || validationTimeout == null || initialBackoff == null
+                || maxBackoff == null || openDuration == null) {
+            throw new IllegalArgumentException("Resilience timeouts cannot be null.");
+        }
+        if (healthCheckInterval.isNegative() || healthCheckInterval.isZero()) {
+            throw new IllegalArgumentException("healthCheckInterval must be positive.");
+        }
+        if (validationTimeout.toSeconds() < 1) {
+            throw new IllegalArgumentException("validationTimeout must be at least one second.");
+        }
+        if (initialBackoff.isNegative() || initialBackoff.isZero() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Backoff must satisfy 0 < initialBackoff <= maxBackoff.");
+        }
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive.");
+        }
+    }
+
+    /**
+     * @return 5s health checks, 2s validation timeout, 100ms to 10s backoff, and a circuit that opens after
+     *         3 consecutive failures for 5s.
+     */
+    public static ResilienceConfig defaults() {
+        return new ResilienceConfig(
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(2),
+                Duration.ofMillis(100),
+                Duration.ofSeconds(10),
+                3,
+                Duration.ofSeconds(5));
+    }
+
+    /**
+     * @return A copy of this configuration with a different circuit breaker.
+     */
+    public ResilienceConfig withCircuitBreaker(int failureThreshold, Duration openDuration) {
+        return new ResilienceConfig(healthCheckInterval, validationTimeout, initialBackoff, maxBackoff, failureThreshold, openDuration);
+    }
+
+    /**
+     * @return A copy of this configuration with a different backoff between reconnect attempts.
+     */
+    public ResilienceConfig withBackoff(Duration initialBackoff, Duration maxBackoff) {
+        return new ResilienceConfig(healthCheckInterval, validationTimeout, initialBackoff, maxBackoff, failureThreshold, openDuration);
+    }
+
+    /**
+     * @return The jittered delay before reconnect attempt number {@code attempt} (0-based): the exponential
+     *         backoff {@code initialBackoff * 2^attempt}, capped at {@code maxBackoff}, scaled by a random
+     *         factor in [0.5, 1] so that many clients do not retry in lockstep.
+     */
+    long backoffMillis(int attempt, double random) {
+        long base = Math.min(this.maxBackoff.toMillis(), this.initialBackoff.toMillis() << Math.min(attempt, 20));
+        return base / 2 + (long) (random * (base - base / 2));
+    }
+}
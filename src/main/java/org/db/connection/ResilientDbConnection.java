@@ -0,0 +1,419 @@
+package org.db.connection;
+
+import org.db.interfaces.IDbMetrics.Operation;
+import org.db.interfaces.RowMapper;
+import org.db.model.UserRow;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * A {@link DbConnection} that survives a dropped connection (wait_timeout, failover, restarts).
+ * <ul>
+ *   <li>A background task checks the idle connection with {@link Connection#isValid(int)}.</li>
+ *   <li>When a check or an operation hits a connection failure ({@link #isConnectionFailure(SQLException)}),
+ *       the next operation reconnects transparently, and a background task keeps retrying with
+ *       exponential backoff and jitter until the database is back.</li>
+ *   <li>A {@link CircuitBreaker} opens after repeated connection failures, so while MySQL is down operations
+ *       fail fast instead of each one waiting for a connect timeout; only one caller reconnects at a time.</li>
+ *   <li>Idempotent reads ({@code findBy*}, {@code check}, and {@code select} when no row was delivered yet)
+ *       that failed on a dropped connection are run once more after reconnecting.
+ *       Writes and {@code stream} are never replayed, nor is anything inside a transaction.</li>
+ * </ul>
+ * @version 1.0.0
+ */
+public final class ResilientDbConnection extends DbConnection {
+
+    private static final Logger LOG = Logger.getLogger(ResilientDbConnection.class.getName());
+
+    private final ResilienceConfig config;
+    private final CircuitBreaker breaker;
+    private final ReentrantLock reconnectLock = new ReentrantLock();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger reconnectAttempts = new AtomicInteger();
+    private final AtomicBoolean reconnectScheduled = new AtomicBoolean();
+    private final ThreadLocal<SQLException> connectionFailure = new ThreadLocal<>();
+    private volatile boolean open = false;
+    private volatile boolean broken = false;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param URL The full JDBC URL for the MySQL database.
+     * @param USER The database username.
+     * @param PASSWORD The database user password.
+     * @param config Health check, backoff and circuit breaker settings.
+     */
+    public ResilientDbConnection(String URL, String USER, String PASSWORD, ResilienceConfig config) {
+        super(URL, USER, PASSWORD);
+        if (config == null) {
+            throw new IllegalArgumentException("ResilienceConfig cannot be null.");
+        }
+        this.config = config;
+        this.breaker = new CircuitBreaker(config.failureThreshold(), config.openDuration());
+        // Sem isso, uma tentativa de reconexão com o servidor fora do ar pode esperar o timeout TCP do sistema.
+        setDriverProperty("connectTimeout", String.valueOf(config.validationTimeout().toMillis()));
+    }
+
+    /**
+     * Uses {@link ResilienceConfig#defaults()}.
+     */
+    public ResilientDbConnection(String URL, String USER, String PASSWORD) {
+        this(URL, USER, PASSWORD, ResilienceConfig.defaults());
+    }
+
+    /**
+     * Opens the connection and starts the background health checks.
+     * @return true if the connection is ready.
+     * @throws RuntimeException if the first connection cannot be opened.
+     */
+    @Override
+    public synchronized Boolean connect() {
+        if (this.open) {
+            LOG.fine("A conexão já está ativa.");
+            return true;
+        }
+        super.connect();
+        this.broken = false;
+        this.reconnectAttempts.set(0);
+        this.breaker.onSuccess();
+        this.open = true;
+
+        long period = this.config.healthCheckInterval().toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::healthCheck, period, period, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Stops the health checks and reconnect attempts and closes the connection.
+     */
+    @Override
+    public synchronized Boolean disconnect() {
+        if (!this.open) {
+            return super.disconnect();
+        }
+        this.scheduler.shutdownNow();
+        try {
+            if (this.broken) {
+                drainWriteBehind();
+                discard(this.connection);
+                return true;
+            }
+            return super.disconnect();
+        } finally {
+            this.open = false;
+            this.broken = false;
+        }
+    }
+
+    /**
+     * @return true between {@link #connect()} and {@link #disconnect()}, even while a dropped connection is
+     *         being re-established, so that operations get the chance to reconnect or fail fast.
+     */
+    @Override
+    public boolean isConnected() {
+        return this.open;
+    }
+
+    /**
+     * @return The current connection, reconnecting first if it was dropped.
+     * @throws RuntimeException if the database is unavailable.
+     */
+    @Override
+    public Connection getConnection() {
+        try {
+            return healthyConnection(0);
+        } catch (SQLException e) {
+            throw new RuntimeException("Connection is not available.", e);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return this.breaker;
+    }
+
+    public ResilienceConfig getResilienceConfig() {
+        return this.config;
+    }
+
+    @Override
+    protected Connection acquire() throws SQLException {
+        Connection current = healthyConnection(0);
+        this.inFlight.incrementAndGet();
+        return current;
+    }
+
+    @Override
+    protected void release(Connection connection) {
+        this.inFlight.decrementAndGet();
+    }
+
+    /**
+     * Marks the connection as dropped when an operation fails with a connection failure,
+     * or with any error once the connection reports itself closed.
+     */
+    @Override
+    protected void recordFailure(SQLException e) {
+        super.recordFailure(e);
+        if (e instanceof UnavailableException) {
+            this.connectionFailure.set(e);
+        } else if (isConnectionFailure(e) || isClosed(this.connection)) {
+            this.connectionFailure.set(e);
+            LOG.warning(() -> "Falha de conexão detectada (" + e.getSQLState() + "): " + e.getMessage());
+            this.breaker.onFailure();
+            markBroken();
+        }
+    }
+
+    // --- Leituras idempotentes, repetidas uma vez após reconectar ---
+
+    @Override
+    public Optional<UserRow> findByEmail(String table, String email) {
+        return replaying(() -> super.findByEmail(table, email), () -> true);
+    }
+
+    @Override
+    public Optional<UserRow> findById(String table, int id) {
+        return replaying(() -> super.findById(table, id), () -> true);
+    }
+
+    @Override
+    public Boolean select(String table, Consumer<UserRow> handler) {
+        long[] delivered = {0};
+        return replaying(() -> super.select(table, row -> {
+            delivered[0]++;
+            handler.accept(row);
+        }), () -> delivered[0] == 0);
+    }
+
+    @Override
+    public Boolean select(String table, List<String> columns, Consumer<Map<String, Object>> handler) {
+        long[] delivered = {0};
+        return replaying(() -> super.select(table, columns, row -> {
+            delivered[0]++;
+            handler.accept(row);
+        }), () -> delivered[0] == 0);
+    }
+
+    @Override
+    public <T> Boolean select(String table, RowMapper<T> mapper, Consumer<? super T> handler) {
+        long[] delivered = {0};
+        return replaying(() -> super.select(table, mapper, row -> {
+            delivered[0]++;
+            handler.accept(row);
+        }), () -> delivered[0] == 0);
+    }
+
+    @Override
+    public Boolean check(String table) {
+        return replaying(() -> super.check(table), () -> true);
+    }
+
+    /**
+     * Runs a read and, if it failed on a dropped or unavailable connection outside a transaction and
+     * {@code replayable} still holds, reconnects (waiting up to the validation timeout for a reconnect
+     * already in progress) and runs it once more.
+     */
+    private <T> T replaying(Supplier<T> read, Supplier<Boolean> replayable) {
+        this.connectionFailure.remove();
+        T result = read.get();
+        SQLException failure = this.connectionFailure.get();
+        this.connectionFailure.remove();
+        if (failure == null || inTransaction() || !replayable.get()) {
+            return result;
+        }
+
+        try {
+            healthyConnection(this.config.validationTimeout().toNanos());
+        } catch (SQLException e) {
+            return result;
+        }
+        LOG.fine("Repetindo a leitura após a reconexão.");
+        return read.get();
+    }
+
+    // --- Reconexão ---
+
+    /**
+     * Returns the current connection, or reconnects on the calling thread when it was dropped.
+     * Fails fast when the circuit is open, or when another thread is already reconnecting and
+     * {@code waitNanos} is 0.
+     */
+    private Connection healthyConnection(long waitNanos) throws SQLException {
+        if (!this.open) {
+            throw new UnavailableException("Connection is not active. Please call connect() first.");
+        }
+        Connection current = this.connection;
+        if (!this.broken && current != null) {
+            return current;
+        }
+        if (!this.breaker.allow()) {
+            throw new UnavailableException("Circuit breaker is open: the database is unavailable.");
+        }
+        if (!reconnect(waitNanos)) {
+            throw new UnavailableException("The connection to the database was lost and could not be re-established.");
+        }
+        return this.connection;
+    }
+
+    /**
+     * Opens a new connection in place of the dropped one. Only one thread reconnects at a time;
+     * the others give up after {@code waitNanos}, or succeed if the reconnect they waited for did.
+     * A failed attempt schedules the next one in the background.
+     * @return true if the connection is usable.
+     */
+    private boolean reconnect(long waitNanos) {
+        try {
+            if (!this.reconnectLock.tryLock(waitNanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        try {
+            if (!this.open) {
+                return false;
+            }
+            if (!this.broken && this.connection != null) {
+                return true;
+            }
+
+            long start = System.nanoTime();
+            try {
+                LOG.fine("Reconectando ao banco de dados MySQL...");
+                Connection fresh = DriverManager.getConnection(connectionUrl(), this.user, this.password);
+                Connection old = this.connection;
+                this.connection = fresh;
+                this.broken = false;
+                discard(old);
+                this.reconnectAttempts.set(0);
+                this.breaker.onSuccess();
+                record(Operation.RECONNECT, start, 0, true);
+                LOG.info("Reconexão bem-sucedida!");
+                return true;
+            } catch (SQLException e) {
+                this.breaker.onFailure();
+                record(Operation.RECONNECT, start, 0, false);
+                logFailure(e, () -> "Falha ao reconectar ao banco de dados.");
+                scheduleReconnect();
+                return false;
+            }
+        } finally {
+            this.reconnectLock.unlock();
+        }
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection == null || connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void markBroken() {
+        if (this.open) {
+            this.broken = true;
+            scheduleReconnect();
+        }
+    }
+
+    /**
+     * Schedules one background reconnect attempt after the jittered backoff, unless one is already scheduled.
+     */
+    private void scheduleReconnect() {
+        if (!this.open || !this.reconnectScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        int attempt = this.reconnectAttempts.getAndIncrement();
+        long delay = attempt == 0 ? 0 : this.config.backoffMillis(attempt - 1, ThreadLocalRandom.current().nextDouble());
+        LOG.fine(() -> "Nova tentativa de reconexão em " + delay + " ms.");
+        try {
+            this.scheduler.schedule(() -> {
+                this.reconnectScheduled.set(false);
+                if (this.open && this.broken) {
+                    reconnect(0);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // O agendador já foi encerrado por disconnect().
+            this.reconnectScheduled.set(false);
+        }
+    }
+
+    /**
+     * Checks the connection while no operation is using it, and starts reconnecting if it is no longer valid.
+     */
+    private void healthCheck() {
+        if (!this.open || this.broken || this.inFlight.get() > 0) {
+            return;
+        }
+        Connection current = this.connection;
+        boolean valid;
+        try {
+            valid = current != null && current.isValid((int) this.config.validationTimeout().toSeconds());
+        } catch (SQLException e) {
+            valid = false;
+        }
+        if (valid) {
+            this.breaker.onSuccess();
+            return;
+        }
+        if (current == this.connection && this.open) {
+            LOG.warning("A verificação de saúde falhou: a conexão com o banco de dados foi perdida.");
+            this.breaker.onFailure();
+            markBroken();
+        }
+    }
+
+    /**
+     * Forgets the statements cached for a dropped connection and closes it, ignoring errors.
+     */
+    private void discard(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        StatementCache cache = this.statementCache;
+        if (cache != null) {
+            cache.invalidate(connection);
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOG.fine(() -> "Erro ao fechar a conexão perdida: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Raised without touching the network when the connection is unavailable (circuit open, or reconnect
+     * in progress or failed), so it is not counted as another connection failure.
+     */
+    private static final class UnavailableException extends SQLTransientConnectionException {
+        private static final long serialVersionUID = 1L;
+
+        private UnavailableException(String reason) {
+            super(reason, "08001");
+        }
+    }
+}
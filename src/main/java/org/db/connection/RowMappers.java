@@ -0,0 +1,64 @@
+package org.db.connection;
+
+import org.db.interfaces.RowMapper;
+import org.db.model.MutableUsuario;
+import org.db.model.UserRow;
+import org.db.model.Usuario;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ready-made {@link RowMapper}s for the rows this project reads.
+ * Each one resolves its column indexes once per query and reads primitives with the primitive getters.
+ * @version 1.0.0
+ */
+public final class RowMappers {
+
+    /**
+     * (id, nome, email) rows, as returned by {@code select(table, handler)} and {@code stream(table)}.
+     */
+    public static final RowMapper<UserRow> USER_ROW = RowMapper.of(List.of("id", "nome", "email"),
+            index -> resultSet -> new UserRow(resultSet.getInt(index[0]), resultSet.getString(index[1]), resultSet.getString(index[2])));
+
+    /**
+     * Full rows of the 'usuarios' table, one new {@link Usuario} per row.
+     */
+    public static final RowMapper<Usuario> USUARIO = RowMapper.of(List.of("id", "nome", "email", "data_cadastro"),
+            index -> resultSet -> new Usuario(resultSet.getInt(index[0]), resultSet.getString(index[1]),
+                    resultSet.getString(index[2]), instant(resultSet.getTimestamp(index[3]))));
+
+    /**
+     * Full rows of the 'usuarios' table written into a single {@link MutableUsuario} per query, for large
+     * streaming reads where the caller consumes each row before the next one is read.
+     */
+    public static final RowMapper<MutableUsuario> MUTABLE_USUARIO = RowMapper.of(List.of("id", "nome", "email", "data_cadastro"),
+            index -> {
+                MutableUsuario row = new MutableUsuario();
+                return resultSet -> row.set(resultSet.getInt(index[0]), resultSet.getString(index[1]),
+                        resultSet.getString(index[2]), instant(resultSet.getTimestamp(index[3])));
+            });
+
+    private RowMappers() {
+    }
+
+    /**
+     * @return A mapper that reads the given columns into a map keyed by those names, in that order.
+     */
+    public static RowMapper<Map<String, Object>> columns(List<String> columns) {
+        return RowMapper.of(columns, index -> resultSet -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < index.length; i++) {
+                row.put(columns.get(i), resultSet.getObject(index[i]));
+            }
+            return row;
+        });
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
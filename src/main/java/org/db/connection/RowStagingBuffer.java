@@ -0,0 +1,390 @@
+package org.db.connection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.logging.Logger;
+
+/**
+ * Compact store for (nome, email) rows waiting to be inserted, kept out of the Java heap.
+ * Each row is encoded once as UTF-8 ({@code [nome length][nome][email length][email]}, lengths as unsigned
+ * 16-bit) into 1 MiB direct {@link ByteBuffer} segments; the heap only holds one {@code long} address per row.
+ * A million rows cost about 8 MB of heap instead of the Strings, entries and table of a {@code HashMap}.
+ * <p>
+ * Segments are allocated until {@code maxMemory} is reached; from then on each filled segment is written to a
+ * temporary spill file, deleted on {@link #close()}, and its buffer reused, so memory stays bounded whatever the
+ * number of rows. Spilled rows are read back one segment at a time.
+ * <p>
+ * Rows are added by one thread; once adding has stopped, any number of {@link Cursor}s may read at the same
+ * time, e.g. the partitions of a {@link BulkLoader}. {@link ADbConnection#insertAll} and {@link BulkLoader} read
+ * the rows straight from the segments while binding, without building entries.
+ * @version 1.0.0
+ */
+public final class RowStagingBuffer implements Iterable<Map.Entry<String, String>>, AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(RowStagingBuffer.class.getName());
+
+    private static final int SEGMENT_SHIFT = 20;
+
+    /**
+     * Size of each off-heap segment, and the maximum encoded size of one row.
+     */
+    public static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    /**
+     * Default off-heap budget before rows spill to disk.
+     */
+    public static final long DEFAULT_MAX_MEMORY = 64L * SEGMENT_SIZE;
+
+    /**
+     * Maximum encoded length, in bytes, of a nome or an email.
+     */
+    public static final int MAX_VALUE_BYTES = 0xFFFF;
+
+    private final long maxMemory;
+    private final Path spillDirectory;
+    // Segmentos residentes, por número; null para os que já foram gravados no arquivo de spill.
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private ByteBuffer current = null;
+    private long[] addresses = new long[1024];
+    private int size = 0;
+    private long bytes = 0;
+    private long residentBytes = 0;
+    private long spilledBytes = 0;
+    private FileChannel spill = null;
+    private volatile boolean closed = false;
+
+    /**
+     * @param maxMemory Off-heap bytes kept in memory before segments spill to disk; at least {@link #SEGMENT_SIZE}.
+     * @param spillDirectory Where the spill file is created, or null for the default temporary directory.
+     */
+    public RowStagingBuffer(long maxMemory, Path spillDirectory) {
+        if (maxMemory < SEGMENT_SIZE) {
+            throw new IllegalArgumentException("maxMemory must be at least " + SEGMENT_SIZE + " bytes.");
+        }
+        this.maxMemory = maxMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public RowStagingBuffer(long maxMemory) {
+        this(maxMemory, null);
+    }
+
+    public RowStagingBuffer() {
+        this(DEFAULT_MAX_MEMORY, null);
+    }
+
+    /**
+     * Appends a row.
+     * @throws IllegalArgumentException if a value is null or longer than {@link #MAX_VALUE_BYTES} in UTF-8.
+     * @throws IllegalStateException if the buffer was closed.
+     * @throws UncheckedIOException if a segment cannot be spilled to disk.
+     */
+    public void add(String nome, String email) {
+        if (nome == null || email == null) {
+            throw new IllegalArgumentException("Nome and email cannot be null.");
+        }
+        if (this.closed) {
+            throw new IllegalStateException("Staging buffer is closed.");
+        }
+        byte[] nomeBytes = nome.getBytes(StandardCharsets.UTF_8);
+        byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+        if (nomeBytes.length > MAX_VALUE_BYTES || emailBytes.length > MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("Nome and email cannot exceed " + MAX_VALUE_BYTES + " bytes in UTF-8.");
+        }
+
+        int length = 4 + nomeBytes.length + emailBytes.length;
+        if (this.current == null || this.current.remaining() < length) {
+            nextSegment();
+        }
+        if (this.size == this.addresses.length) {
+            this.addresses = Arrays.copyOf(this.addresses, this.size * 2);
+        }
+        this.addresses[this.size++] = ((long) (this.segments.size() - 1) << SEGMENT_SHIFT) | this.current.position();
+        this.current.putShort((short) nomeBytes.length).put(nomeBytes)
+                .putShort((short) emailBytes.length).put(emailBytes);
+        this.bytes += length;
+    }
+
+    /**
+     * Appends every (nome, email) pair, in iteration order.
+     */
+    public void addAll(Iterable<? extends Map.Entry<String, String>> rows) {
+        for (Map.Entry<String, String> row : rows) {
+            add(row.getKey(), row.getValue());
+        }
+    }
+
+    /**
+     * Starts a new segment: a newly allocated one while under {@code maxMemory}, otherwise the current one,
+     * after its rows have been written to the spill file.
+     */
+    private void nextSegment() {
+        if (this.residentBytes + SEGMENT_SIZE <= this.maxMemory) {
+            this.current = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+            this.residentBytes += SEGMENT_SIZE;
+        } else {
+            int segment = this.segments.size() - 1;
+            spill(segment, this.current);
+            this.segments.set(segment, null);
+            this.current.clear();
+        }
+        this.segments.add(this.current);
+    }
+
+    private void spill(int segment, ByteBuffer buffer) {
+        try {
+            if (this.spill == null) {
+                Path file = this.spillDirectory == null
+                        ? Files.createTempFile("rows-", ".spill")
+                        : Files.createTempFile(this.spillDirectory, "rows-", ".spill");
+                this.spill = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+                LOG.fine(() -> "Limite de " + this.maxMemory + " bytes atingido; gravando linhas em " + file);
+            }
+            ByteBuffer used = buffer.duplicate().flip();
+            long position = (long) segment << SEGMENT_SHIFT;
+            while (used.hasRemaining()) {
+                position += this.spill.write(used, position);
+            }
+            this.spilledBytes += buffer.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill staged rows to disk", e);
+        }
+    }
+
+    /**
+     * @return The number of rows added.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return Encoded size of all rows, in bytes.
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * @return Off-heap bytes allocated for segments.
+     */
+    public long getResidentBytes() {
+        return this.residentBytes;
+    }
+
+    /**
+     * @return Bytes written to the spill file; 0 while everything fits in memory.
+     */
+    public long getSpilledBytes() {
+        return this.spilledBytes;
+    }
+
+    /**
+     * @return A view of rows {@code from} (inclusive) to {@code to} (exclusive), read without copying.
+     */
+    public Range range(int from, int to) {
+        if (from < 0 || to > this.size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of [0, " + this.size + ")");
+        }
+        return new Range(from, to);
+    }
+
+    /**
+     * @return A cursor over every row.
+     */
+    public Cursor cursor() {
+        return new Cursor(0, this.size);
+    }
+
+    /**
+     * Iterates the rows as entries, one allocated per row. Prefer a {@link Cursor} on hot paths.
+     */
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+        return range(0, this.size).iterator();
+    }
+
+    /**
+     * Releases the segments and deletes the spill file. The off-heap memory is returned when the
+     * buffers are garbage collected.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.segments.clear();
+        this.current = null;
+        this.addresses = new long[0];
+        this.size = 0;
+        if (this.spill != null) {
+            try {
+                this.spill.close();
+            } catch (IOException e) {
+                LOG.warning("Falha ao remover o arquivo de spill: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A contiguous run of rows of the buffer.
+     */
+    public final class Range implements Iterable<Map.Entry<String, String>> {
+        private final int from;
+        private final int to;
+
+        private Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public int size() {
+            return this.to - this.from;
+        }
+
+        public Cursor cursor() {
+            return new Cursor(this.from, this.to);
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            Cursor cursor = cursor();
+            return new Iterator<>() {
+                private boolean ready = false;
+
+                @Override
+                public boolean hasNext() {
+                    if (!this.ready) {
+                        this.ready = cursor.next();
+                    }
+                    return this.ready;
+                }
+
+                @Override
+                public Map.Entry<String, String> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    this.ready = false;
+                    return Map.entry(cursor.nome(), cursor.email());
+                }
+            };
+        }
+    }
+
+    /**
+     * Reads rows in order, decoding each value straight from its segment. A cursor is used by one thread;
+     * spilled segments are loaded into its own buffer, allocated on first use.
+     */
+    public final class Cursor {
+        private final int to;
+        private int row;
+        private byte[] scratch = new byte[256];
+        private ByteBuffer loaded = null;
+        private int loadedSegment = -1;
+        private String nome;
+        private String email;
+
+        private Cursor(int from, int to) {
+            this.row = from - 1;
+            this.to = to;
+        }
+
+        /**
+         * Moves to the next row.
+         * @return false when there are no more rows.
+         * @throws UncheckedIOException if a spilled segment cannot be read.
+         */
+        public boolean next() {
+            if (this.row + 1 >= this.to) {
+                return false;
+            }
+            if (RowStagingBuffer.this.closed) {
+                throw new IllegalStateException("Staging buffer is closed.");
+            }
+            long address = RowStagingBuffer.this.addresses[++this.row];
+            ByteBuffer segment = segment((int) (address >>> SEGMENT_SHIFT));
+            int offset = (int) (address & (SEGMENT_SIZE - 1));
+
+            int length = Short.toUnsignedInt(segment.getShort(offset));
+            this.nome = decode(segment, offset + 2, length);
+            offset += 2 + length;
+            length = Short.toUnsignedInt(segment.getShort(offset));
+            this.email = decode(segment, offset + 2, length);
+            return true;
+        }
+
+        /**
+         * @return Position of the current row in the buffer.
+         */
+        public int row() {
+            return this.row;
+        }
+
+        public String nome() {
+            return this.nome;
+        }
+
+        public String email() {
+            return this.email;
+        }
+
+        private String decode(ByteBuffer segment, int offset, int length) {
+            if (length > this.scratch.length) {
+                this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+            }
+            // Leitura absoluta: não altera a posição do segmento, compartilhado entre cursores.
+            segment.get(offset, this.scratch, 0, length);
+            return new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private ByteBuffer segment(int segment) {
+            ByteBuffer resident = RowStagingBuffer.this.segments.get(segment);
+            if (resident != null) {
+                return resident;
+            }
+            if (this.loadedSegment != segment) {
+                if (this.loaded == null) {
+                    this.loaded = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+                }
+                this.loaded.clear();
+                long position = (long) segment << SEGMENT_SHIFT;
+                try {
+                    int read;
+                    while (this.loaded.hasRemaining()
+                            && (read = RowStagingBuffer.this.spill.read(this.loaded, position)) > 0) {
+                        position += read;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read staged rows from disk", e);
+                }
+                this.loadedSegment = segment;
+            }
+            return this.loaded;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RowStagingBuffer{rows=" + this.size + ", bytes=" + this.bytes + ", resident=" + this.residentBytes
+                + ", spilled=" + this.spilledBytes + "}";
+    }
+}
@@ -0,0 +1,296 @@
+package org.db.connection;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide cache of table metadata, one registry per database.
+ * The first operation on a table reads its columns from {@link DatabaseMetaData} and, if the table does
+ * not exist and a definition was registered for it, creates it. Every later operation, from any client
+ * instance or pooled connection in the JVM, is served from memory, so the DDL and metadata round trips
+ * happen once per process instead of once per connection.
+ * @version 1.0.0
+ */
+public class SchemaRegistry {
+
+    private static final Logger LOG = Logger.getLogger(SchemaRegistry.class.getName());
+
+    private static final Map<String, SchemaRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    /**
+     * DDL of the tables this project creates on first use.
+     */
+    private static final Map<String, String> DEFAULT_DEFINITIONS = Map.of(
+            "usuarios", "CREATE TABLE IF NOT EXISTS usuarios (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "nome VARCHAR(100) NOT NULL, " +
+                    "email VARCHAR(100) NOT NULL UNIQUE, " +
+                    "data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+
+    /**
+     * One column of a table, as reported by {@link DatabaseMetaData#getColumns}.
+     * @param name The column name, as stored by the database.
+     * @param jdbcType The {@link java.sql.Types} constant.
+     * @param typeName The database type name (e.g. "VARCHAR").
+     * @param size The column size (e.g. the maximum length of a VARCHAR).
+     * @param nullable true if the column accepts NULL.
+     * @param autoIncrement true if the database generates the value.
+     * @param hasDefault true if the column has a default value.
+     */
+    public record Column(String name, int jdbcType, String typeName, int size, boolean nullable,
+                         boolean autoIncrement, boolean hasDefault) {
+    }
+
+    /**
+     * A table and its columns, looked up case-insensitively.
+     */
+    public static final class Table {
+        private final String name;
+        private final List<Column> columns;
+        private final Map<String, Column> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        private Table(String name, List<Column> columns) {
+            this.name = name;
+            this.columns = Collections.unmodifiableList(columns);
+            for (Column column : columns) {
+                this.byName.put(column.name(), column);
+            }
+        }
+
+        /**
+         * @return The table name, as stored by the database.
+         */
+        public String name() {
+            return this.name;
+        }
+
+        /**
+         * @return The columns in table order.
+         */
+        public List<Column> columns() {
+            return this.columns;
+        }
+
+        /**
+         * @return The column with this name, or null if the table has none.
+         */
+        public Column column(String name) {
+            return this.byName.get(name);
+        }
+
+        /**
+         * @return The columns with these names, in the given order.
+         * @throws IllegalArgumentException if the table has no column with one of the names.
+         */
+        public List<Column> columns(Iterable<String> names) {
+            List<Column> result = new ArrayList<>();
+            for (String name : names) {
+                Column column = column(name);
+                if (column == null) {
+                    throw new IllegalArgumentException("Table '" + this.name + "' has no column '" + name + "'.");
+                }
+                result.add(column);
+            }
+            if (result.isEmpty()) {
+                throw new IllegalArgumentException("At least one column is required.");
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Table{" + this.name + ", columns=" + this.columns.stream().map(Column::name).toList() + "}";
+        }
+    }
+
+    private final String database;
+    private final Map<String, String> definitions = new ConcurrentHashMap<>(DEFAULT_DEFINITIONS);
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Table>> loading = new ConcurrentHashMap<>();
+
+    private SchemaRegistry(String database) {
+        this.database = database;
+    }
+
+    /**
+     * @return The registry shared by every client of the database at this URL (driver properties ignored) and user.
+     */
+    public static SchemaRegistry forDatabase(String url, String user) {
+        int query = url.indexOf('?');
+        String database = (query < 0 ? url : url.substring(0, query)) + "|" + user;
+        return REGISTRIES.computeIfAbsent(database, SchemaRegistry::new);
+    }
+
+    /**
+     * Registers the DDL used to create a table the first time it is used, if it does not exist yet.
+     * @param table The table name.
+     * @param ddl A {@code CREATE TABLE IF NOT EXISTS} statement.
+     */
+    public void define(String table, String ddl) {
+        this.definitions.put(table.toLowerCase(Locale.ROOT), ddl);
+    }
+
+    /**
+     * Registers a table created with the same columns as another defined table, e.g. a copy of 'usuarios'.
+     * @param table The new table name.
+     * @param model A table with a definition (e.g., "usuarios").
+     * @throws IllegalArgumentException if {@code model} has no definition.
+     */
+    public void defineLike(String table, String model) {
+        String ddl = this.definitions.get(model.toLowerCase(Locale.ROOT));
+        String prefix = "CREATE TABLE IF NOT EXISTS " + model + " (";
+        if (ddl == null || !ddl.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            throw new IllegalArgumentException("Table '" + model + "' has no definition to copy.");
+        }
+        define(table, "CREATE TABLE IF NOT EXISTS " + table + " (" + ddl.substring(prefix.length()));
+    }
+
+    /**
+     * Returns the cached metadata of a table, reading it (and creating the table from its definition,
+     * if needed) on first use. Concurrent first uses of the same table wait for a single lookup.
+     * @param connection Used only on first use.
+     * @param table The table name.
+     * @return The table and its columns.
+     * @throws SQLException if the metadata cannot be read, or the table does not exist and has no definition.
+     */
+    public Table table(Connection connection, String table) throws SQLException {
+        while (true) {
+            Table cached = this.tables.get(table);
+            if (cached != null) {
+                return cached;
+            }
+
+            CompletableFuture<Table> lookup = new CompletableFuture<>();
+            CompletableFuture<Table> running = this.loading.putIfAbsent(table, lookup);
+            if (running == null) {
+                return lookup(connection, table, lookup);
+            }
+            try {
+                return running.join();
+            } catch (CompletionException | CancellationException e) {
+                // A consulta de outra thread falhou; tenta de novo com a própria conexão.
+            }
+        }
+    }
+
+    /**
+     * Runs the lookup installed in {@code loading}, outside of any map operation, and publishes its result.
+     */
+    private Table lookup(Connection connection, String table, CompletableFuture<Table> lookup) throws SQLException {
+        try {
+            Table found = this.tables.get(table);
+            if (found == null) {
+                found = load(connection, table);
+                this.tables.put(table, found);
+            }
+            lookup.complete(found);
+            return found;
+        } catch (SQLException | RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(table, lookup);
+        }
+    }
+
+    /**
+     * @return The cached metadata of a table, or null if it was not validated yet.
+     */
+    public Table cached(String table) {
+        return this.tables.get(table);
+    }
+
+    /**
+     * @return The tables validated so far.
+     */
+    public List<Table> getTables() {
+        return List.copyOf(this.tables.values());
+    }
+
+    /**
+     * Forgets a table's metadata, e.g. after an ALTER TABLE, so the next use reads it again.
+     */
+    public void invalidate(String table) {
+        this.tables.remove(table);
+    }
+
+    /**
+     * Forgets every table's metadata.
+     */
+    public void clear() {
+        this.tables.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaRegistry{" + this.database.substring(0, this.database.lastIndexOf('|')) + ", tables=" + this.tables.keySet() + "}";
+    }
+
+    private Table load(Connection connection, String table) throws SQLException {
+        Table found = readTable(connection, table);
+        if (found != null) {
+            LOG.fine(() -> "Tabela '" + table + "' validada pelos metadados.");
+            return found;
+        }
+
+        String ddl = this.definitions.get(table.toLowerCase(Locale.ROOT));
+        if (ddl == null) {
+            throw new SQLException("Table '" + table + "' does not exist and has no definition to create it.", "42S02");
+        }
+        LOG.info(() -> "Criando a tabela '" + table + "'...");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(ddl);
+        }
+        found = readTable(connection, table);
+        if (found == null) {
+            throw new SQLException("Table '" + table + "' was not found after running its definition.", "42S02");
+        }
+        return found;
+    }
+
+    /**
+     * @return The table's columns, or null if the table does not exist. The name pattern may match other
+     *         tables ('_' is a wildcard), so only exact (case-insensitive) matches are kept.
+     */
+    private static Table readTable(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String pattern = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT)
+                : metaData.storesLowerCaseIdentifiers() ? table.toLowerCase(Locale.ROOT) : table;
+
+        List<Column> columns = new ArrayList<>();
+        String name = null;
+        try (ResultSet resultSet = metaData.getColumns(connection.getCatalog(), connection.getSchema(), pattern, "%")) {
+            while (resultSet.next()) {
+                String tableName = resultSet.getString("TABLE_NAME");
+                if (!tableName.equalsIgnoreCase(table)) {
+                    continue;
+                }
+                name = tableName;
+                columns.add(new Column(
+                        resultSet.getString("COLUMN_NAME"),
+                        resultSet.getInt("DATA_TYPE"),
+                        resultSet.getString("TYPE_NAME"),
+                        resultSet.getInt("COLUMN_SIZE"),
+                        resultSet.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls,
+                        "YES".equalsIgnoreCase(resultSet.getString("IS_AUTOINCREMENT")),
+                        resultSet.getString("COLUMN_DEF") != null));
+            }
+        }
+        return name == null ? null : new Table(name, columns);
+    }
+}
@@ -0,0 +1,739 @@
+package org.db.connection;
+
+import org.db.interfaces.IDbConnection;
+import org.db.interfaces.RowMapper;
+import org.db.model.UserRow;
+import org.db.model.WriteCounts;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spreads the rows of a table over several databases (shards), each reached through its own {@link ADbConnection}.
+ * Writes go to the shard that owns the row's email on a consistent hash ring, where each shard holds
+ * {@link #VIRTUAL_NODES} points: adding a shard moves only the keys that now fall on its points,
+ * about 1/N of them, and {@link #rebalance(String)} copies those rows over.
+ * Reads without an email ({@code select}, {@code stream}, {@code findById}) and {@code check} run on every
+ * shard in parallel, on virtual threads, and their results are merged.
+ * Ids are generated by each shard, so the same id can exist on several shards.
+ * Transactions cannot span shards; use {@link #shardFor(String)} to run one on the shard of a key.
+ * @version 1.0.0
+ */
+public final class ShardedDbConnection implements IDbConnection {
+
+    private static final Logger LOG = Logger.getLogger(ShardedDbConnection.class.getName());
+
+    /**
+     * Points each shard places on the hash ring. More points spread the keys more evenly.
+     */
+    public static final int VIRTUAL_NODES = 160;
+
+    /**
+     * Rows buffered between the shards and the consumer of a merged {@link #stream(String)}.
+     */
+    public static final int MERGE_QUEUE_CAPACITY = 1024;
+
+    private static final Object END_OF_SHARD = new Object();
+
+    private final Map<String, ADbConnection> shards = new LinkedHashMap<>();
+    // Criado no primeiro uso e encerrado por disconnect().
+    private ExecutorService executor = null;
+    private volatile Ring ring = Ring.EMPTY;
+    private volatile boolean connected = false;
+
+    /**
+     * Creates an empty cluster; add shards with {@link #addShard(String, ADbConnection)}.
+     */
+    public ShardedDbConnection() {
+    }
+
+    /**
+     * @param shards The shards, keyed by a stable name. The names decide which keys each shard owns,
+     *               so a shard must keep its name across restarts.
+     */
+    public ShardedDbConnection(Map<String, ? extends ADbConnection> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required.");
+        }
+        shards.forEach(this::addShard);
+    }
+
+    /**
+     * Adds a shard to the ring, connecting it first if this cluster is connected.
+     * From then on it owns the keys that hash to its points; rows already stored elsewhere for those keys
+     * are not found by {@link #findByEmail} until {@link #rebalance(String)} moves them.
+     * @param name A stable name for the shard, used to place it on the ring.
+     * @param shard The shard's connection.
+     * @return true if the shard was added.
+     * @throws IllegalArgumentException if the name is blank or already used.
+     */
+    public synchronized boolean addShard(String name, ADbConnection shard) {
+        if (name == null || name.isBlank() || shard == null) {
+            throw new IllegalArgumentException("Shard name and connection cannot be null or blank.");
+        }
+        if (this.shards.containsKey(name)) {
+            throw new IllegalArgumentException("There is already a shard named '" + name + "'.");
+        }
+        if (this.connected && !shard.isConnected() && !shard.connect()) {
+            LOG.warning(() -> "Não foi possível conectar ao shard '" + name + "'; ele não foi adicionado.");
+            return false;
+        }
+        this.shards.put(name, shard);
+        this.ring = Ring.build(this.shards);
+        LOG.info(() -> "Shard '" + name + "' adicionado; " + this.shards.size() + " shard(s) no anel.");
+        return true;
+    }
+
+    /**
+     * @return The shards, by name, in the order they were added.
+     */
+    public synchronized Map<String, ADbConnection> getShards() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(this.shards));
+    }
+
+    /**
+     * @return The shard that owns an email. Emails are routed case-insensitively, like MySQL's default collation compares them.
+     * @throws IllegalArgumentException if the email is null.
+     * @throws IllegalStateException if there are no shards.
+     */
+    public ADbConnection shardFor(String email) {
+        return owner(this.ring, email).connection();
+    }
+
+    /**
+     * @return The name of the shard that owns an email.
+     */
+    public String shardNameFor(String email) {
+        return owner(this.ring, email).name();
+    }
+
+    /**
+     * Connects every shard, in parallel.
+     * @return true if every shard is connected.
+     */
+    @Override
+    public synchronized Boolean connect() {
+        Ring current = this.ring;
+        if (current.shards().isEmpty()) {
+            LOG.warning("Nenhum shard configurado.");
+            return false;
+        }
+        List<Boolean> results = fanOut(current, shard -> shard.connection().isConnected() || shard.connection().connect());
+        boolean success = allTrue(current, results, "conectar");
+        this.connected = success;
+        return success;
+    }
+
+    /**
+     * Disconnects every shard, in parallel, then shuts down the threads used to reach them.
+     * @return true if every shard was disconnected.
+     */
+    @Override
+    public synchronized Boolean disconnect() {
+        Ring current = this.ring;
+        this.connected = false;
+        try {
+            return allTrue(current, fanOut(current, shard -> shard.connection().disconnect()), "desconectar");
+        } finally {
+            if (this.executor != null) {
+                this.executor.shutdown();
+                this.executor = null;
+            }
+        }
+    }
+
+    /**
+     * @return true if every shard is connected.
+     */
+    public boolean isConnected() {
+        Ring current = this.ring;
+        if (current.shards().isEmpty()) {
+            return false;
+        }
+        for (Shard shard : current.shards()) {
+            if (!shard.connection().isConnected()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean insert(String table, String nome, String email) {
+        if (email == null) {
+            LOG.warning("Não é possível rotear a inserção: o email é nulo.");
+            return false;
+        }
+        return shardFor(email).insert(table, nome, email);
+    }
+
+    /**
+     * Inserts one row on the shard that owns its 'email' value.
+     * @throws IllegalArgumentException if {@code values} has no string 'email'.
+     */
+    @Override
+    public Boolean insert(String table, Map<String, ?> values) {
+        for (Map.Entry<String, ?> value : values.entrySet()) {
+            if (value.getKey().equalsIgnoreCase("email") && value.getValue() instanceof String email) {
+                return shardFor(email).insert(table, values);
+            }
+        }
+        throw new IllegalArgumentException("A sharded insert needs a string 'email' value to route the row.");
+    }
+
+    /**
+     * Splits the rows by shard and inserts each part on its shard, in parallel.
+     * @return One result per row, in iteration order; rows without an email are {@link Statement#EXECUTE_FAILED}.
+     */
+    @Override
+    public int[] insertAll(String table, Iterable<? extends Map.Entry<String, String>> rows) {
+        Ring current = this.ring;
+        Routed routed = route(current, rows);
+        List<int[]> counts = fanOut(current, shard -> {
+            List<Map.Entry<String, String>> part = routed.rows().get(shard.index());
+            return part.isEmpty() ? new int[0] : shard.connection().insertAll(table, part);
+        });
+
+        int[] results = new int[routed.total()];
+        Arrays.fill(results, Statement.EXECUTE_FAILED);
+        for (int s = 0; s < counts.size(); s++) {
+            List<Integer> positions = routed.positions().get(s);
+            int[] shardCounts = counts.get(s);
+            for (int i = 0; i < positions.size() && i < shardCounts.length; i++) {
+                results[positions.get(i)] = shardCounts[i];
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Splits the rows by shard and upserts each part on its shard, in parallel.
+     * @return The batches of every shard, shard by shard, followed by one failed batch for the rows without an email.
+     */
+    @Override
+    public List<WriteCounts> upsert(String table, Iterable<? extends Map.Entry<String, String>> rows) {
+        return writeRouted(rows, (shard, part) -> shard.upsert(table, part));
+    }
+
+    /**
+     * Splits the rows by shard and inserts each part on its shard ignoring duplicates, in parallel.
+     * @return The batches of every shard, shard by shard, followed by one failed batch for the rows without an email.
+     */
+    @Override
+    public List<WriteCounts> insertIgnore(String table, Iterable<? extends Map.Entry<String, String>> rows) {
+        return writeRouted(rows, (shard, part) -> shard.insertIgnore(table, part));
+    }
+
+    @Override
+    public Boolean select(String table) {
+        return ADbConnection.printRows(table, handler -> select(table, handler));
+    }
+
+    /**
+     * Reads every shard in parallel. The handler is called by one shard at a time, so it needs no synchronization,
+     * and rows of different shards are interleaved.
+     */
+    @Override
+    public Boolean select(String table, Consumer<UserRow> handler) {
+        Consumer<UserRow> serialized = serialized(handler);
+        return fanOutSelect(shard -> shard.select(table, serialized));
+    }
+
+    /**
+     * Reads the columns on every shard in parallel, as {@link #select(String, Consumer)}.
+     */
+    @Override
+    public Boolean select(String table, List<String> columns, Consumer<Map<String, Object>> handler) {
+        Consumer<Map<String, Object>> serialized = serialized(handler);
+        return fanOutSelect(shard -> shard.select(table, columns, serialized));
+    }
+
+    /**
+     * Reads every shard in parallel, as {@link #select(String, Consumer)}. Each shard binds its own
+     * {@link RowMapper.Reader}, so reusing mappers such as {@link RowMappers#MUTABLE_USUARIO} work here.
+     */
+    @Override
+    public <T> Boolean select(String table, RowMapper<T> mapper, Consumer<? super T> handler) {
+        Consumer<? super T> serialized = serialized(handler);
+        return fanOutSelect(shard -> shard.select(table, mapper, serialized));
+    }
+
+    /**
+     * Streams every shard in parallel into one stream. Each shard reads ahead into a buffer of
+     * {@link #MERGE_QUEUE_CAPACITY} rows; closing the stream stops the shards and releases their connections.
+     */
+    @Override
+    public Stream<UserRow> stream(String table) {
+        return merge(table, shard -> shard.stream(table));
+    }
+
+    /**
+     * Streams every shard in parallel into one stream, as {@link #stream(String)}.
+     * @throws IllegalArgumentException for {@link RowMappers#MUTABLE_USUARIO}, whose reused element cannot be
+     *         handed from a shard's thread to the consumer.
+     */
+    @Override
+    public <T> Stream<T> stream(String table, RowMapper<T> mapper) {
+        if (mapper == RowMappers.MUTABLE_USUARIO) {
+            throw new IllegalArgumentException("Reusing row mappers cannot be merged across shards; use select or RowMappers.USUARIO.");
+        }
+        return merge(table, shard -> shard.stream(table, mapper));
+    }
+
+    /**
+     * Looks the email up on the shard that owns it.
+     */
+    @Override
+    public Optional<UserRow> findByEmail(String table, String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return shardFor(email).findByEmail(table, email);
+    }
+
+    /**
+     * Asks every shard in parallel, since ids are not routed.
+     * @return The row of the first shard, in the order shards were added, that has the id.
+     */
+    @Override
+    public Optional<UserRow> findById(String table, int id) {
+        for (Optional<UserRow> row : fanOut(this.ring, shard -> shard.connection().findById(table, id))) {
+            if (row.isPresent()) {
+                return row;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Runs {@link ADbConnection#check()} on every shard, in parallel.
+     * @return true if every shard passed.
+     */
+    @Override
+    public Boolean check() {
+        Ring current = this.ring;
+        return allTrue(current, fanOut(current, shard -> shard.connection().check()), "verificar");
+    }
+
+    /**
+     * Moves the rows of a table whose email is now owned by another shard, typically after {@link #addShard}.
+     * Each row is written to its owner with {@code INSERT IGNORE}, so a row already written there wins,
+     * and is then deleted from the shard it was read from. A group of rows is only deleted once every row
+     * of it is known to be on its owner (inserted or already there); otherwise it stays on the source for the
+     * next rebalance. Rows are read with {@link ADbConnection#stream(String)}; only the rows that move are kept in memory.
+     * <p>
+     * Only 'nome' and 'email' are copied: a moved row gets a new {@code id} and a new {@code data_cadastro}
+     * on its owner.
+     * @param table The table to rebalance (e.g., "usuarios").
+     * @return The number of rows moved.
+     */
+    public long rebalance(String table) {
+        Ring current = this.ring;
+        long moved = 0;
+        for (Shard source : current.shards()) {
+            Map<Shard, List<Map.Entry<String, String>>> misplaced = new LinkedHashMap<>();
+            try (Stream<UserRow> rows = source.connection().stream(table)) {
+                rows.forEach(row -> {
+                    Shard owner = owner(current, row.email());
+                    if (owner != source) {
+                        misplaced.computeIfAbsent(owner, s -> new ArrayList<>())
+                                .add(new AbstractMap.SimpleImmutableEntry<>(row.nome(), row.email()));
+                    }
+                });
+            }
+
+            for (Map.Entry<Shard, List<Map.Entry<String, String>>> group : misplaced.entrySet()) {
+                List<Map.Entry<String, String>> rows = group.getValue();
+                WriteCounts written = WriteCounts.total(group.getKey().connection().insertIgnore(table, rows));
+                // Uma lista vazia ou truncada (shard desconectado, falha no lease) não é uma cópia bem-sucedida.
+                long copied = written.inserted() + written.skipped();
+                if (copied != rows.size()) {
+                    LOG.warning(() -> (rows.size() - copied) + " linha(s) não foram copiadas de '" + source.name()
+                            + "' para '" + group.getKey().name() + "'; o grupo de " + rows.size() + " permanece na origem.");
+                    continue;
+                }
+                try {
+                    moved += delete(source.connection(), table, rows);
+                } catch (SQLException e) {
+                    ADbConnection.logFailure(e, () -> "Falha ao remover as linhas movidas do shard '" + source.name() + "'.");
+                }
+            }
+        }
+        long total = moved;
+        LOG.info(() -> total + " linha(s) da tabela '" + table + "' movidas entre shards.");
+        return total;
+    }
+
+    /**
+     * Transactions cannot span shards.
+     * @return false.
+     */
+    @Override
+    public Boolean begin() {
+        LOG.warning("Transações entre shards não são suportadas; use shardFor(email).begin().");
+        return false;
+    }
+
+    /**
+     * @return false, see {@link #begin()}.
+     */
+    @Override
+    public Boolean commit() {
+        LOG.warning("Transações entre shards não são suportadas; use shardFor(email).commit().");
+        return false;
+    }
+
+    /**
+     * @return false, see {@link #begin()}.
+     */
+    @Override
+    public Boolean rollback() {
+        LOG.warning("Transações entre shards não são suportadas; use shardFor(email).rollback().");
+        return false;
+    }
+
+    /**
+     * @throws UnsupportedOperationException always; use {@code shardFor(email).inTransaction(work)}.
+     */
+    @Override
+    public <T> T inTransaction(Function<IDbConnection, T> work) {
+        throw new UnsupportedOperationException("Transactions cannot span shards; use shardFor(email).inTransaction(work).");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always; each shard has its own connection.
+     */
+    @Override
+    public Connection getConnection() {
+        throw new UnsupportedOperationException("A sharded connection has no single JDBC connection; use shardFor(email).getConnection().");
+    }
+
+    private interface ShardWrite {
+        List<WriteCounts> write(ADbConnection shard, List<Map.Entry<String, String>> rows);
+    }
+
+    private List<WriteCounts> writeRouted(Iterable<? extends Map.Entry<String, String>> rows, ShardWrite write) {
+        Ring current = this.ring;
+        Routed routed = route(current, rows);
+        List<WriteCounts> results = new ArrayList<>();
+        for (List<WriteCounts> counts : fanOut(current, shard -> {
+            List<Map.Entry<String, String>> part = routed.rows().get(shard.index());
+            return part.isEmpty() ? List.<WriteCounts>of() : write.write(shard.connection(), part);
+        })) {
+            results.addAll(counts);
+        }
+        if (routed.unrouted() > 0) {
+            results.add(new WriteCounts(routed.unrouted(), 0, 0, 0, routed.unrouted()));
+        }
+        return results;
+    }
+
+    /**
+     * The rows of one write, split by shard index, with the position of each row in the original order.
+     */
+    private record Routed(List<List<Map.Entry<String, String>>> rows, List<List<Integer>> positions, int total, int unrouted) {
+    }
+
+    private static Routed route(Ring ring, Iterable<? extends Map.Entry<String, String>> rows) {
+        int size = ring.shards().size();
+        List<List<Map.Entry<String, String>>> parts = new ArrayList<>(size);
+        List<List<Integer>> positions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            parts.add(new ArrayList<>());
+            positions.add(new ArrayList<>());
+        }
+        int total = 0;
+        int unrouted = 0;
+        for (Map.Entry<String, String> row : rows) {
+            if (row.getValue() == null) {
+                unrouted++;
+            } else {
+                int index = owner(ring, row.getValue()).index();
+                parts.get(index).add(row);
+                positions.get(index).add(total);
+            }
+            total++;
+        }
+        return new Routed(parts, positions, total, unrouted);
+    }
+
+    private Boolean fanOutSelect(Function<ADbConnection, Boolean> select) {
+        Ring current = this.ring;
+        return allTrue(current, fanOut(current, shard -> select.apply(shard.connection())), "ler");
+    }
+
+    /**
+     * Runs the work on every shard of the ring, each on its own virtual thread.
+     * @return The results in shard order.
+     */
+    private <T> List<T> fanOut(Ring ring, Function<Shard, T> work) {
+        List<Shard> targets = ring.shards();
+        if (targets.size() == 1) {
+            return List.of(work.apply(targets.get(0)));
+        }
+        List<Future<T>> futures = new ArrayList<>(targets.size());
+        for (Shard shard : targets) {
+            futures.add(executor().submit(() -> work.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(targets.size());
+        for (Future<T> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    private synchronized ExecutorService executor() {
+        if (this.executor == null) {
+            this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return this.executor;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("A shard operation failed", e.getCause());
+        }
+    }
+
+    private static boolean allTrue(Ring ring, List<Boolean> results, String action) {
+        boolean success = true;
+        for (int i = 0; i < results.size(); i++) {
+            if (!Boolean.TRUE.equals(results.get(i))) {
+                String name = ring.shards().get(i).name();
+                LOG.warning(() -> "Falha ao " + action + " no shard '" + name + "'.");
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    private static <T> Consumer<T> serialized(Consumer<T> handler) {
+        Object lock = new Object();
+        return row -> {
+            synchronized (lock) {
+                handler.accept(row);
+            }
+        };
+    }
+
+    /**
+     * Merges the streams of every shard through a bounded queue filled by one virtual thread per shard.
+     */
+    private <T> Stream<T> merge(String table, Function<ADbConnection, Stream<T>> open) {
+        Ring current = this.ring;
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(MERGE_QUEUE_CAPACITY);
+        AtomicBoolean closed = new AtomicBoolean(false);
+        List<Future<?>> producers = new ArrayList<>(current.shards().size());
+        for (Shard shard : current.shards()) {
+            producers.add(executor().submit(() -> {
+                try (Stream<T> rows = open.apply(shard.connection())) {
+                    Iterator<T> iterator = rows.iterator();
+                    while (!closed.get() && iterator.hasNext()) {
+                        offer(queue, iterator.next(), closed);
+                    }
+                } catch (RuntimeException e) {
+                    offer(queue, new ShardFailure(shard.name(), e), closed);
+                } finally {
+                    offer(queue, END_OF_SHARD, closed);
+                }
+            }));
+        }
+
+        int shardCount = current.shards().size();
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.NONNULL) {
+            private int finished = 0;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (this.finished < shardCount) {
+                    Object next;
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException("Interrupted while reading table '" + table + "' from the shards", e);
+                    }
+                    if (next == END_OF_SHARD) {
+                        this.finished++;
+                    } else if (next instanceof ShardFailure failure) {
+                        throw new RuntimeException("Could not read table '" + table + "' from shard '" + failure.shard() + "'", failure.cause());
+                    } else {
+                        action.accept((T) next);
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            // Para os produtores e espera que devolvam suas conexões.
+            closed.set(true);
+            queue.clear();
+            for (Future<?> producer : producers) {
+                try {
+                    producer.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    LOG.warning(() -> "Falha ao fechar o stream de um shard da tabela '" + table + "': " + e.getCause());
+                }
+            }
+        });
+    }
+
+    private record ShardFailure(String shard, RuntimeException cause) {
+    }
+
+    /**
+     * Puts a row in the merge queue, giving up once the merged stream is closed.
+     */
+    private static void offer(BlockingQueue<Object> queue, Object element, AtomicBoolean closed) {
+        try {
+            while (!closed.get()) {
+                if (queue.offer(element, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long delete(ADbConnection shard, String table, List<Map.Entry<String, String>> rows) throws SQLException {
+        try (ADbConnection.Lease lease = shard.lease()) {
+            shard.resolveTable(lease.connection(), table);
+            try (ADbConnection.Prepared prepared = shard.prepare(lease.connection(), "DELETE FROM " + table + " WHERE email = ?")) {
+                PreparedStatement preparedStatement = prepared.statement();
+                for (Map.Entry<String, String> row : rows) {
+                    preparedStatement.setString(1, row.getValue());
+                    preparedStatement.addBatch();
+                }
+                long deleted = 0;
+                for (int count : prepared.executeBatch(rows.size())) {
+                    deleted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+                }
+                return deleted;
+            }
+        }
+    }
+
+    private static Shard owner(Ring ring, String email) {
+        if (email == null) {
+            throw new IllegalArgumentException("Cannot route a row without an email.");
+        }
+        if (ring.points().length == 0) {
+            throw new IllegalStateException("There are no shards to route to.");
+        }
+        int index = Arrays.binarySearch(ring.points(), hash(email.toLowerCase(Locale.ROOT)));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // O anel é circular: depois do último ponto vem o primeiro.
+        return ring.owners()[index == ring.points().length ? 0 : index];
+    }
+
+    /**
+     * 64-bit FNV-1a followed by MurmurHash3's finalizer, so that similar keys land far apart on the ring.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * One shard and its position in the ring's shard list.
+     */
+    private record Shard(int index, String name, ADbConnection connection) {
+    }
+
+    /**
+     * An immutable hash ring: {@code points} sorted ascending, and {@code owners[i]} the shard at {@code points[i]}.
+     * It is replaced as a whole when a shard is added, so readers never lock.
+     */
+    private record Ring(List<Shard> shards, long[] points, Shard[] owners) {
+
+        private static final Ring EMPTY = new Ring(List.of(), new long[0], new Shard[0]);
+
+        private static Ring build(Map<String, ADbConnection> connections) {
+            List<Shard> shards = new ArrayList<>(connections.size());
+            connections.forEach((name, connection) -> shards.add(new Shard(shards.size(), name, connection)));
+
+            long[][] entries = new long[shards.size() * VIRTUAL_NODES][];
+            int n = 0;
+            for (Shard shard : shards) {
+                for (int node = 0; node < VIRTUAL_NODES; node++) {
+                    entries[n++] = new long[]{hash(shard.name() + "#" + node), shard.index()};
+                }
+            }
+            Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+            long[] points = new long[entries.length];
+            Shard[] owners = new Shard[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                points[i] = entries[i][0];
+                owners[i] = shards.get((int) entries[i][1]);
+            }
+            return new Ring(List.copyOf(shards), points, owners);
+        }
+    }
+
+    @Override
+    public String toString() {
+        Ring current = this.ring;
+        List<String> names = new ArrayList<>(current.shards().size());
+        for (Shard shard : current.shards()) {
+            names.add(shard.name());
+        }
+        return "ShardedDbConnection{shards=" + names + ", virtualNodes=" + VIRTUAL_NODES + "}";
+    }
+}
@@ -0,0 +1,171 @@
+package org.db.connection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of prepared statements keyed by (connection, SQL).
+ * A statement is removed from the cache while it is in use and put back afterwards, so two threads
+ * never share one statement: a second caller asking for the same key simply prepares its own.
+ * @version 1.0.0
+ */
+public class StatementCache {
+
+    private record Key(Connection connection, String sql) {
+    }
+
+    /**
+     * Factory used on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Preparer {
+        PreparedStatement prepare(Connection connection, String sql) throws SQLException;
+    }
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, PreparedStatement> statements;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize Maximum number of idle statements kept open, across all connections.
+     */
+    public StatementCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Statement cache size must be positive.");
+        }
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Takes the cached statement for this connection and SQL, or prepares a new one.
+     * @param connection The connection the statement belongs to.
+     * @param sql The SQL text.
+     * @param preparer Used to create the statement on a miss.
+     * @return A statement owned by the caller until it is handed to {@link #giveBack}.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement take(Connection connection, String sql, Preparer preparer) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this.statements) {
+            statement = this.statements.remove(new Key(connection, sql));
+        }
+        if (statement != null && !statement.isClosed()) {
+            this.hits.increment();
+            return statement;
+        }
+        this.misses.increment();
+        return preparer.prepare(connection, sql);
+    }
+
+    /**
+     * Puts a statement back for reuse, evicting the least recently used ones above the size limit.
+     * Statements whose connection is closed are closed instead of cached.
+     * @param connection The connection the statement belongs to.
+     * @param sql The SQL text used to take it.
+     * @param statement The statement to cache.
+     */
+    public void giveBack(Connection connection, String sql, PreparedStatement statement) {
+        try {
+            if (statement.isClosed() || connection.isClosed()) {
+                close(statement);
+                return;
+            }
+            statement.clearParameters();
+        } catch (SQLException e) {
+            close(statement);
+            return;
+        }
+
+        List<PreparedStatement> evicted = new ArrayList<>(1);
+        synchronized (this.statements) {
+            PreparedStatement previous = this.statements.put(new Key(connection, sql), statement);
+            if (previous != null) {
+                evicted.add(previous);
+            }
+            Iterator<PreparedStatement> eldest = this.statements.values().iterator();
+            while (this.statements.size() > this.maxSize) {
+                evicted.add(eldest.next());
+                eldest.remove();
+            }
+        }
+        this.evictions.add(evicted.size());
+        evicted.forEach(StatementCache::close);
+    }
+
+    /**
+     * Closes and forgets every statement prepared on a connection. Must be called before the connection is closed.
+     * @param connection The connection being closed or discarded.
+     */
+    public void invalidate(Connection connection) {
+        List<PreparedStatement> removed = new ArrayList<>();
+        synchronized (this.statements) {
+            Iterator<Map.Entry<Key, PreparedStatement>> entries = this.statements.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Key, PreparedStatement> entry = entries.next();
+                if (entry.getKey().connection() == connection) {
+                    removed.add(entry.getValue());
+                    entries.remove();
+                }
+            }
+        }
+        removed.forEach(StatementCache::close);
+    }
+
+    /**
+     * Closes and forgets every cached statement.
+     */
+    public void clear() {
+        List<PreparedStatement> removed;
+        synchronized (this.statements) {
+            removed = new ArrayList<>(this.statements.values());
+            this.statements.clear();
+        }
+        removed.forEach(StatementCache::close);
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    public int size() {
+        synchronized (this.statements) {
+            return this.statements.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCache{size=" + size() + ", maxSize=" + this.maxSize + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "}";
+    }
+
+    private static void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // O statement está sendo descartado.
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.db.connection;
+
+import org.db.model.UserRow;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of user rows, indexed by email and by id.
+ * Emails are matched case-insensitively, like the case-insensitive collation of the {@code usuarios.email} column,
+ * so "A@x" and "a@x" share one entry.
+ * Entries expire after a fixed time-to-live, and the least recently used ones are evicted
+ * once {@code maxSize} rows are cached.
+ * @version 1.0.0
+ */
+public class UserCache {
+
+    private record Key(String table, Object value) {
+    }
+
+    private record Entry(UserRow row, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> byEmail = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Key, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxSize Maximum number of rows cached.
+     * @param ttl How long a row is served from memory before it is read again.
+     */
+    public UserCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0 || ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("User cache needs a positive size and time-to-live.");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @return The cached row with this email, or null on a miss.
+     */
+    public UserRow getByEmail(String table, String email) {
+        return get(this.byEmail, emailKey(table, email));
+    }
+
+    /**
+     * @return The cached row with this id, or null on a miss.
+     */
+    public UserRow getById(String table, int id) {
+        return get(this.byId, new Key(table, id));
+    }
+
+    /**
+     * Caches a row under both its email and its id.
+     */
+    public void put(String table, UserRow row) {
+        Entry entry = new Entry(row, System.nanoTime() + this.ttlNanos);
+        synchronized (this) {
+            Entry previous = this.byEmail.put(emailKey(table, row.email()), entry);
+            if (previous != null && previous.row().id() != row.id()) {
+                this.byId.remove(new Key(table, previous.row().id()));
+            }
+            this.byId.put(new Key(table, row.id()), entry);
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Forgets the row with this email, e.g. after it was inserted or updated.
+     */
+    public synchronized void invalidate(String table, String email) {
+        Entry removed = this.byEmail.remove(emailKey(table, email));
+        if (removed != null) {
+            this.byId.remove(new Key(table, removed.row().id()));
+        }
+    }
+
+    /**
+     * Forgets every cached row.
+     */
+    public synchronized void clear() {
+        this.byEmail.clear();
+        this.byId.clear();
+    }
+
+    public synchronized int size() {
+        return this.byEmail.size();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    public long getExpirations() {
+        return this.expirations.sum();
+    }
+
+    /**
+     * @return Hits divided by lookups, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long total = hit + getMisses();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UserCache{size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d, expirations=%d, hitRate=%.2f}",
+                size(), this.maxSize, getHits(), getMisses(), getEvictions(), getExpirations(), getHitRate());
+    }
+
+    private UserRow get(LinkedHashMap<Key, Entry> index, Key key) {
+        synchronized (this) {
+            Entry entry = index.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() - System.nanoTime() > 0) {
+                    if (index == this.byId) {
+                        // Mantém a ordem LRU, que é controlada pelo índice de email.
+                        this.byEmail.get(emailKey(key.table(), entry.row().email()));
+                    }
+                    this.hits.increment();
+                    return entry.row();
+                }
+                this.byEmail.remove(emailKey(key.table(), entry.row().email()));
+                this.byId.remove(new Key(key.table(), entry.row().id()));
+                this.expirations.increment();
+            }
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    private static Key emailKey(String table, String email) {
+        return new Key(table, email == null ? null : email.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Drops the least recently used rows while the cache is over its size limit. Caller holds the lock.
+     */
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> eldest = this.byEmail.entrySet().iterator();
+        while (this.byEmail.size() > this.maxSize && eldest.hasNext()) {
+            Map.Entry<Key, Entry> entry = eldest.next();
+            eldest.remove();
+            this.byId.remove(new Key(entry.getKey().table(), entry.getValue().row().id()));
+            this.evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package org.db.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind buffer in front of {@link ADbConnection#insert(String, String, String)}.
+ * Producers enqueue rows into a bounded queue and return immediately; a single flusher thread drains
+ * the queue whenever {@code flushSize} rows are waiting or {@code flushInterval} has passed since the
+ * oldest one arrived, and writes each group as batched inserts inside one transaction.
+ * <p>
+ * A group that hits a deadlock or a dropped connection is written again after a backoff, up to
+ * {@link ADbConnection#getTransactionRetries()} times. Rows the database still rejects (e.g. a duplicate email,
+ * which also fails the other rows of a rewritten batch) are then inserted one by one, so only the rows that
+ * really fail are lost; each of them is counted in {@link #getFailed()} and logged.
+ * <p>
+ * With a single {@link DbConnection}, the flusher's transaction shares the connection with every other
+ * caller; use a {@link PooledDbConnection} when other threads write through the same client.
+ * @version 1.0.0
+ */
+public class WriteBehindBuffer implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(WriteBehindBuffer.class.getName());
+
+    /**
+     * What {@link #enqueue} does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait until the flusher frees space. */
+        BLOCK,
+        /** Discard the row and return false. */
+        DROP,
+        /** Insert the row synchronously on the calling thread. */
+        CALLER_RUNS
+    }
+
+    private record PendingRow(String table, String nome, String email) {
+    }
+
+    /**
+     * Wakes the flusher up when the buffer is closed.
+     */
+    private static final PendingRow STOP = new PendingRow(null, null, null);
+
+    private final ADbConnection db;
+    private final BlockingQueue<PendingRow> queue;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy policy;
+    private final Thread flusher;
+    // enqueue segura a leitura enquanto confere closed e enfileira; close() só fecha com a escrita.
+    private final ReentrantReadWriteLock closing = new ReentrantReadWriteLock();
+    private volatile boolean closed = false;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * Creates the buffer and starts its flusher thread.
+     * @param db The connection the rows are written to.
+     * @param capacity Maximum number of rows waiting in memory.
+     * @param flushSize Number of waiting rows that triggers a flush.
+     * @param flushInterval Maximum time a row waits before it is flushed.
+     * @param policy What to do when the buffer is full.
+     */
+    public WriteBehindBuffer(ADbConnection db, int capacity, int flushSize, Duration flushInterval, OverflowPolicy policy) {
+        if (db == null || flushInterval == null || policy == null) {
+            throw new IllegalArgumentException("Connection, flush interval and overflow policy cannot be null.");
+        }
+        if (flushSize <= 0 || capacity < flushSize) {
+            throw new IllegalArgumentException("Sizes must satisfy 0 < flushSize <= capacity.");
+        }
+        this.db = db;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.policy = policy;
+        this.flusher = new Thread(this::run, "db-write-behind-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues a row for insertion.
+     * @return true if the row was queued (or inserted, with {@link OverflowPolicy#CALLER_RUNS}),
+     *         false if it was dropped or the buffer is closed.
+     */
+    public boolean enqueue(String table, String nome, String email) {
+        this.closing.readLock().lock();
+        try {
+            if (this.closed) {
+                LOG.warning("O buffer de escrita está fechado; linha descartada.");
+                this.dropped.increment();
+                return false;
+            }
+            return offer(table, nome, email);
+        } finally {
+            this.closing.readLock().unlock();
+        }
+    }
+
+    private boolean offer(String table, String nome, String email) {
+        PendingRow row = new PendingRow(table, nome, email);
+        if (this.queue.offer(row)) {
+            this.enqueued.increment();
+            return true;
+        }
+
+        switch (this.policy) {
+            case BLOCK -> {
+                try {
+                    this.queue.put(row);
+                    this.enqueued.increment();
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    this.dropped.increment();
+                    return false;
+                }
+            }
+            case CALLER_RUNS -> {
+                return this.db.insertDirect(table, nome, email);
+            }
+            default -> {
+                this.dropped.increment();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting rows, flushes everything still queued and waits for the flusher to finish.
+     * Waits for {@link #enqueue} calls already in progress, so every row they accepted is flushed.
+     */
+    @Override
+    public void close() {
+        this.closing.writeLock().lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        } finally {
+            this.closing.writeLock().unlock();
+        }
+        this.queue.offer(STOP);
+        try {
+            this.flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Linhas enfileiradas enquanto o flusher terminava.
+        List<PendingRow> rest = new ArrayList<>();
+        this.queue.drainTo(rest);
+        flush(rest);
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * @return The number of rows currently waiting to be flushed.
+     */
+    public int getPending() {
+        return this.queue.size();
+    }
+
+    public long getEnqueued() {
+        return this.enqueued.sum();
+    }
+
+    public long getFlushed() {
+        return this.flushed.sum();
+    }
+
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    public long getFailed() {
+        return this.failed.sum();
+    }
+
+    public long getFlushes() {
+        return this.flushes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBehindBuffer{pending=" + getPending() + ", enqueued=" + getEnqueued() + ", flushed=" + getFlushed()
+                + ", dropped=" + getDropped() + ", failed=" + getFailed() + ", flushes=" + getFlushes() + "}";
+    }
+
+    private void run() {
+        List<PendingRow> batch = new ArrayList<>(this.flushSize);
+        while (!this.closed) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        this.queue.drainTo(batch);
+        flush(batch);
+    }
+
+    /**
+     * Waits for a first row, then keeps collecting until the batch is full or the flush interval
+     * measured from that first row has passed.
+     */
+    private void collect(List<PendingRow> batch) throws InterruptedException {
+        PendingRow first = this.queue.poll(this.flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null || first == STOP) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + this.flushIntervalNanos;
+
+        while (batch.size() < this.flushSize) {
+            this.queue.drainTo(batch, this.flushSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= this.flushSize || remaining <= 0) {
+                return;
+            }
+            PendingRow next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null || next == STOP) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes a group of rows, grouped by table, as batched inserts in a single transaction, then retries
+     * the rows the batches rejected one by one.
+     */
+    private void flush(List<PendingRow> batch) {
+        batch.removeIf(row -> row == STOP);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<PendingRow>> byTable = new LinkedHashMap<>();
+        for (PendingRow row : batch) {
+            byTable.computeIfAbsent(row.table(), t -> new ArrayList<>()).add(row);
+        }
+        List<PendingRow> rows = new ArrayList<>(batch.size());
+        byTable.values().forEach(rows::addAll);
+
+        this.flushes.increment();
+        int[] counts = writeGroup(byTable, rows.size());
+
+        int ok = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i < counts.length && counts[i] != Statement.EXECUTE_FAILED) {
+                ok++;
+                continue;
+            }
+            PendingRow row = rows.get(i);
+            if (this.db.insertDirect(row.table(), row.nome(), row.email())) {
+                ok++;
+            } else {
+                LOG.warning(() -> "Linha do buffer de escrita descartada após falha na inserção: tabela '" + row.table()
+                        + "', nome '" + row.nome() + "', email '" + row.email() + "'.");
+            }
+        }
+        this.flushed.add(ok);
+        this.failed.add(rows.size() - ok);
+    }
+
+    /**
+     * Runs the batched inserts of a group in one transaction, repeating it after a deadlock (through
+     * {@link ADbConnection#inTransaction}) or a dropped connection, with a backoff.
+     * @return One result per row, or an empty array if the group could not be written at all.
+     */
+    private int[] writeGroup(Map<String, List<PendingRow>> byTable, int size) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return this.db.inTransaction(client -> {
+                    ADbConnection.BatchResults results = new ADbConnection.BatchResults(size);
+                    try (ADbConnection.Lease lease = this.db.lease()) {
+                        for (Map.Entry<String, List<PendingRow>> table : byTable.entrySet()) {
+                            List<Map.Entry<String, String>> entries = new ArrayList<>(table.getValue().size());
+                            for (PendingRow row : table.getValue()) {
+                                entries.add(Map.entry(row.nome(), row.email()));
+                            }
+                            this.db.insertBatch(lease.connection(), table.getKey(), entries, results);
+                        }
+                    } catch (SQLException e) {
+                        // Registra a falha na transação, para que um deadlock seja repetido por inTransaction.
+                        this.db.recordFailure(e);
+                        throw new RuntimeException(e);
+                    }
+                    return results.toArray();
+                });
+            } catch (RuntimeException e) {
+                SQLException cause = sqlCause(e);
+                boolean retry = cause != null && (ADbConnection.isConnectionFailure(cause) || ADbConnection.isRetryable(cause))
+                        && attempt < this.db.getTransactionRetries();
+                if (!retry) {
+                    LOG.warning(() -> "Falha ao gravar " + size + " linhas do buffer de escrita em lote (" + e.getMessage()
+                            + "); inserindo uma a uma.");
+                    return new int[0];
+                }
+                int attempts = attempt + 1;
+                LOG.info(() -> "Falha ao gravar o lote do buffer de escrita (" + cause.getSQLState() + "); tentando novamente ("
+                        + attempts + "/" + this.db.getTransactionRetries() + ").");
+                ADbConnection.backoff(attempt);
+            }
+        }
+    }
+
+    private static SQLException sqlCause(Throwable e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof SQLException sql) {
+                return sql;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package org.db.interfaces;
+
+import org.db.model.UserRow;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking counterpart of {@link IDbConnection}.
+ * Every method returns immediately with a future completed once the database call finishes.
+ * @version 1.0.0
+ */
+public interface IAsyncDbConnection extends AutoCloseable {
+
+    /**
+     * Asynchronous {@link IDbConnection#insert(String, String, String)}.
+     * @return A future with true if the insert is successful, false otherwise.
+     */
+    CompletableFuture<Boolean> insertAsync(String table, String nome, String email);
+
+    /**
+     * Asynchronous {@link IDbConnection#insertAll(String, Iterable)}.
+     * @return A future with one result per row.
+     */
+    CompletableFuture<int[]> insertAllAsync(String table, Iterable<? extends Map.Entry<String, String>> rows);
+
+    /**
+     * Asynchronous {@link IDbConnection#select(String)}.
+     * @return A future with true if the select is successful, false otherwise.
+     */
+    CompletableFuture<Boolean> selectAsync(String table);
+
+    /**
+     * Asynchronous {@link IDbConnection#select(String, Consumer)}. The handler runs on the worker thread.
+     * @return A future with true if every row was read, false otherwise.
+     */
+    CompletableFuture<Boolean> selectAsync(String table, Consumer<UserRow> handler);
+
+    /**
+     * Asynchronous {@link IDbConnection#check()}.
+     * @return A future with true if the structures exist or were created successfully.
+     */
+    CompletableFuture<Boolean> checkAsync();
+
+    /**
+     * Stops accepting work and waits for the operations already submitted.
+     */
+    @Override
+    void close();
+}
@@ -1,6 +1,15 @@
 package org.db.interfaces;
 
+import org.db.model.UserRow;
+import org.db.model.WriteCounts;
+
 import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Interface that defines the contract for database connection classes.
@@ -23,6 +32,55 @@ public interface IDbConnection {
      */
     Boolean insert(String table, String nome, String email);
 
+    /**
+     * Inserts one row into any table, with columns validated against the table's metadata.
+     * @param table The name of the table where data will be inserted.
+     * @param values The column values, keyed by column name; columns left out take their defaults.
+     * @return true if the insert is successful, false otherwise.
+     * @throws IllegalArgumentException if the table has no column with one of the names.
+     */
+    Boolean insert(String table, Map<String, ?> values);
+
+    /**
+     * Inserts many rows into any table that has 'nome' and 'email' columns, reusing a single
+     * statement and sending the rows to the database in batches.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param rows The rows to insert, as (nome, email) pairs.
+     * @return One result per row, in iteration order: the update count reported by the driver,
+     *         {@link java.sql.Statement#SUCCESS_NO_INFO} when the driver rewrote the batch, or
+     *         {@link java.sql.Statement#EXECUTE_FAILED} when the row was not inserted.
+     */
+    int[] insertAll(String table, Iterable<? extends Map.Entry<String, String>> rows);
+
+    /**
+     * Inserts every entry of a map, using the key as 'nome' and the value as 'email'.
+     * @param table The name of the table where data will be inserted (e.g., "usuarios").
+     * @param rows The rows to insert, keyed by name.
+     * @return One result per row, as described in {@link #insertAll(String, Iterable)}.
+     */
+    default int[] insertAll(String table, Map<String, String> rows) {
+        return insertAll(table, rows.entrySet());
+    }
+
+    /**
+     * Inserts rows, or updates the 'nome' of the existing row when the email is already present
+     * ({@code INSERT ... ON DUPLICATE KEY UPDATE}). Duplicates are resolved by the database, so they do
+     * not raise errors or cost extra round trips.
+     * @param table The name of the table, which must have a unique 'email' column (e.g., "usuarios").
+     * @param rows The rows to write, as (nome, email) pairs.
+     * @return The inserted, updated and unchanged rows of each batch, in order; rows that could not be sent
+     *         (e.g. no connection) are reported as failed, so an empty list means there was nothing to write.
+     */
+    List<WriteCounts> upsert(String table, Iterable<? extends Map.Entry<String, String>> rows);
+
+    /**
+     * Inserts rows, silently skipping those whose email is already present ({@code INSERT IGNORE}).
+     * @param table The name of the table, which must have a unique 'email' column (e.g., "usuarios").
+     * @param rows The rows to write, as (nome, email) pairs.
+     * @return The inserted and skipped rows of each batch, in order; rows that could not be sent are reported as failed.
+     */
+    List<WriteCounts> insertIgnore(String table, Iterable<? extends Map.Entry<String, String>> rows);
+
     /**
      * Closes the database connection.
      * @return true if the disconnection is successful, false otherwise.
@@ -36,12 +94,103 @@ public interface IDbConnection {
      */
     Boolean select(String table);
 
+    /**
+     * Streams every row of a table with 'id', 'nome' and 'email' columns to a callback,
+     * without loading the whole result into memory.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param handler Called once per row.
+     * @return true if the select is successful, false otherwise.
+     */
+    Boolean select(String table, Consumer<UserRow> handler);
+
+    /**
+     * Streams chosen columns of every row of any table to a callback, with the columns validated
+     * against the table's metadata.
+     * @param table The name of the table to query.
+     * @param columns The columns to read.
+     * @param handler Called once per row with the values keyed by the names in {@code columns}.
+     * @return true if the select is successful, false otherwise.
+     * @throws IllegalArgumentException if the table has no column with one of the names.
+     */
+    Boolean select(String table, List<String> columns, Consumer<Map<String, Object>> handler);
+
+    /**
+     * Streams every row of a table to a callback, mapped by a {@link RowMapper} whose column indexes are
+     * resolved once per query.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param mapper Maps each row to a {@code T}.
+     * @param handler Called once per row.
+     * @return true if the select is successful, false otherwise.
+     * @throws IllegalArgumentException if the table has no column with one of the mapper's names.
+     */
+    <T> Boolean select(String table, RowMapper<T> mapper, Consumer<? super T> handler);
+
+    /**
+     * Returns a lazy stream over every row of a table with 'id', 'nome' and 'email' columns.
+     * The stream holds database resources until it is closed.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @return The rows of the table.
+     */
+    Stream<UserRow> stream(String table);
+
+    /**
+     * Returns a lazy stream over every row of a table, mapped by a {@link RowMapper}.
+     * The stream holds database resources until it is closed.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param mapper Maps each row to a {@code T}.
+     * @return The mapped rows.
+     */
+    <T> Stream<T> stream(String table, RowMapper<T> mapper);
+
+    /**
+     * Finds the row with the given email in a table with 'id', 'nome' and 'email' columns.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param email The email to look for.
+     * @return The row, or empty if there is none.
+     */
+    Optional<UserRow> findByEmail(String table, String email);
+
+    /**
+     * Finds the row with the given id in a table with 'id', 'nome' and 'email' columns.
+     * @param table The name of the table to query (e.g., "usuarios").
+     * @param id The id to look for.
+     * @return The row, or empty if there is none.
+     */
+    Optional<UserRow> findById(String table, int id);
+
     /**
      * Checks if the required database structures (like tables) exist, and creates them if they don't.
+     * Tables are also validated lazily on first use, so {@link #connect()} does not run this.
      * @return true if the structures exist or were created successfully, false otherwise.
      */
     Boolean check();
 
+    /**
+     * Starts a transaction: the following operations run on one connection until {@link #commit()} or {@link #rollback()}.
+     * @return true if the transaction started, false otherwise.
+     */
+    Boolean begin();
+
+    /**
+     * Commits the current transaction.
+     * @return true if the commit is successful, false otherwise.
+     */
+    Boolean commit();
+
+    /**
+     * Rolls back the current transaction.
+     * @return true if the rollback is successful, false otherwise.
+     */
+    Boolean rollback();
+
+    /**
+     * Runs the given work in a transaction, committing it at the end and retrying it on deadlocks
+     * and serialization failures.
+     * @param work The operations to run against this connection.
+     * @return The value returned by {@code work}.
+     */
+    <T> T inTransaction(Function<IDbConnection, T> work);
+
     /**
      * Provides the active database connection object.
      * @return The active SQL Connection object.
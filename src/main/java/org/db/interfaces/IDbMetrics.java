@@ -0,0 +1,41 @@
+package org.db.interfaces;
+
+/**
+ * Receives one measurement per database operation.
+ * Implementations are called on the hot path of every {@link IDbConnection} method,
+ * so recording must be thread-safe, cheap and allocation-free.
+ * @version 1.0.0
+ */
+public interface IDbMetrics {
+
+    /**
+     * The operations that are measured.
+     */
+    enum Operation {
+        CONNECT,
+        INSERT,
+        INSERT_ALL,
+        UPSERT,
+        INSERT_IGNORE,
+        SELECT,
+        FIND,
+        CHECK,
+        RECONNECT,
+        DISCONNECT
+    }
+
+    /**
+     * Records one finished operation.
+     * @param operation The operation that ran.
+     * @param nanos How long it took, in nanoseconds.
+     * @param rows Rows inserted or read by the operation.
+     * @param success false if the operation failed.
+     */
+    void record(Operation operation, long nanos, long rows, boolean success);
+
+    /**
+     * Records how long an operation waited to obtain a connection.
+     * @param nanos The wait, in nanoseconds.
+     */
+    void recordAcquire(long nanos);
+}
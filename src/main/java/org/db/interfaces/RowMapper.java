@@ -0,0 +1,71 @@
+package org.db.interfaces;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Maps the rows of a query to objects of type {@code T}, without reflection.
+ * A mapper names the columns it reads (used to build and validate the SELECT list). For each query it is
+ * bound once to the result set, which resolves the column indexes; the returned {@link Reader} then reads
+ * every row by index.
+ * @param <T> The mapped type.
+ * @version 1.0.0
+ */
+public interface RowMapper<T> {
+
+    /**
+     * @return The columns read by this mapper, in SELECT order.
+     */
+    List<String> columns();
+
+    /**
+     * Prepares a reader for one query, e.g. by resolving column labels to indexes.
+     * @param resultSet The result set of the query, before its first row.
+     * @return The reader called once per row.
+     * @throws SQLException if a column cannot be resolved.
+     */
+    Reader<T> bind(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Reads the current row of a result set.
+     * @param <T> The mapped type.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Creates a mapper from a list of columns and a reader factory that receives their indexes.
+     * <pre>{@code
+     * RowMapper<Contato> contato = RowMapper.of(List.of("nome", "email"),
+     *         index -> resultSet -> new Contato(resultSet.getString(index[0]), resultSet.getString(index[1])));
+     * }</pre>
+     * @param columns The columns to read.
+     * @param factory Called once per query with the 1-based index of each column, in the order of {@code columns}.
+     * @return The mapper.
+     */
+    static <T> RowMapper<T> of(List<String> columns, Function<int[], Reader<T>> factory) {
+        List<String> names = List.copyOf(columns);
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("At least one column is required.");
+        }
+        return new RowMapper<>() {
+            @Override
+            public List<String> columns() {
+                return names;
+            }
+
+            @Override
+            public Reader<T> bind(ResultSet resultSet) throws SQLException {
+                int[] index = new int[names.size()];
+                for (int i = 0; i < index.length; i++) {
+                    index[i] = resultSet.findColumn(names.get(i));
+                }
+                return factory.apply(index);
+            }
+        };
+    }
+}
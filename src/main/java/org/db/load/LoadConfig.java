@@ -0,0 +1,98 @@
+package org.db.load;
+
+import java.time.Duration;
+
+/**
+ * Settings of a {@link LoadGenerator} run.
+ * @param table The table written and read (e.g., "usuarios").
+ * @param threads Number of workers issuing operations.
+ * @param virtualThreads true to run the workers on virtual threads, false for platform threads.
+ * @param duration How long the measured run lasts.
+ * @param targetRate Operations per second over all workers; 0 runs as fast as possible.
+ * @param insertWeight Relative share of inserts in the mix.
+ * @param selectWeight Relative share of reads by primary key ({@code findById}) in the mix.
+ * @param lookupWeight Relative share of reads by email ({@code findByEmail}) in the mix.
+ * @param insertBatch Rows per insert: 1 uses {@code insert}, more uses {@code insertAll}.
+ * @param seedRows Rows inserted with {@code insertAll} before the run, so that reads find data. Not measured.
+ * @param reportInterval How often live throughput and percentiles are printed.
+ * @version 1.0.0
+ */
+public record LoadConfig(String table,
+                         int threads,
+                         boolean virtualThreads,
+                         Duration duration,
+                         double targetRate,
+                         int insertWeight,
+                         int selectWeight,
+                         int lookupWeight,
+                         int insertBatch,
+                         long seedRows,
+                         Duration reportInterval) {
+
+    public LoadConfig {
+        if (table == null || table.isBlank()) {
+            throw new IllegalArgumentException("Table cannot be blank.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive.");
+        }
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive.");
+        }
+        if (targetRate < 0 || Double.isNaN(targetRate)) {
+            throw new IllegalArgumentException("targetRate cannot be negative.");
+        }
+        if (insertWeight < 0 || selectWeight < 0 || lookupWeight < 0 || insertWeight + selectWeight + lookupWeight == 0) {
+            throw new IllegalArgumentException("Mix weights cannot be negative and must not all be zero.");
+        }
+        if (insertBatch <= 0 || seedRows < 0) {
+            throw new IllegalArgumentException("insertBatch must be positive and seedRows non-negative.");
+        }
+        if (reportInterval == null || reportInterval.isNegative() || reportInterval.isZero()) {
+            throw new IllegalArgumentException("reportInterval must be positive.");
+        }
+    }
+
+    /**
+     * @return 8 platform threads for 30s, as fast as possible, 20% inserts, 40% reads by id and 40% by email,
+     *         one row per insert, 10 000 seed rows, a report every second, on "usuarios".
+     */
+    public static LoadConfig defaults() {
+        return new LoadConfig("usuarios", 8, false, Duration.ofSeconds(30), 0, 20, 40, 40, 1, 10_000, Duration.ofSeconds(1));
+    }
+
+    /**
+     * @return A copy of this configuration with different workers.
+     */
+    public LoadConfig withThreads(int threads, boolean virtualThreads) {
+        return new LoadConfig(table, threads, virtualThreads, duration, targetRate, insertWeight, selectWeight, lookupWeight, insertBatch, seedRows, reportInterval);
+    }
+
+    /**
+     * @return A copy of this configuration with a different duration and target rate (0 for as fast as possible).
+     */
+    public LoadConfig withDuration(Duration duration, double targetRate) {
+        return new LoadConfig(table, threads, virtualThreads, duration, targetRate, insertWeight, selectWeight, lookupWeight, insertBatch, seedRows, reportInterval);
+    }
+
+    /**
+     * @return A copy of this configuration with a different operation mix.
+     */
+    public LoadConfig withMix(int insertWeight, int selectWeight, int lookupWeight) {
+        return new LoadConfig(table, threads, virtualThreads, duration, targetRate, insertWeight, selectWeight, lookupWeight, insertBatch, seedRows, reportInterval);
+    }
+
+    /**
+     * @return A copy of this configuration with different insert batch and seed sizes.
+     */
+    public LoadConfig withRows(int insertBatch, long seedRows) {
+        return new LoadConfig(table, threads, virtualThreads, duration, targetRate, insertWeight, selectWeight, lookupWeight, insertBatch, seedRows, reportInterval);
+    }
+
+    /**
+     * @return A copy of this configuration with a different table and report interval.
+     */
+    public LoadConfig withOutput(String table, Duration reportInterval) {
+        return new LoadConfig(table, threads, virtualThreads, duration, targetRate, insertWeight, selectWeight, lookupWeight, insertBatch, seedRows, reportInterval);
+    }
+}
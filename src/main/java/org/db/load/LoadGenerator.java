@@ -0,0 +1,337 @@
+package org.db.load;
+
+import org.db.interfaces.IDbConnection;
+import org.db.metrics.LatencyHistogram;
+import org.db.metrics.OperationStats;
+
+import java.io.PrintStream;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Drives a mix of inserts and point reads against an {@link IDbConnection} and measures them.
+ * Rows are synthetic ({@code nome = "load-<n>"}, email unique per run). Reads pick a random row among those
+ * generated so far: {@code SELECT} reads by id with {@code findById}, {@code LOOKUP} by email with {@code findByEmail}.
+ * <p>
+ * With a target rate, operations are scheduled at fixed intervals shared by all workers, and latency is
+ * measured from the scheduled start, so a stalled database shows up in the percentiles instead of silently
+ * lowering the request rate (coordinated omission). Without one, every worker runs back to back.
+ * Throughput and p50/p99/p999 of the last interval are printed while the run lasts.
+ * @version 1.0.0
+ */
+public class LoadGenerator {
+
+    private static final Logger LOG = Logger.getLogger(LoadGenerator.class.getName());
+
+    /**
+     * The operations of the mix.
+     */
+    public enum Kind {
+        INSERT,
+        SELECT,
+        LOOKUP
+    }
+
+    /**
+     * Outcome of a run.
+     * @param elapsed Measured duration.
+     * @param stats Count, errors, rows (rows written, or rows found by reads) and latency of each operation.
+     */
+    public record Report(Duration elapsed, Map<Kind, OperationStats> stats) {
+
+        public long getOperations() {
+            long operations = 0;
+            for (OperationStats operation : this.stats.values()) {
+                operations += operation.getCount();
+            }
+            return operations;
+        }
+
+        public long getErrors() {
+            long errors = 0;
+            for (OperationStats operation : this.stats.values()) {
+                errors += operation.getErrors();
+            }
+            return errors;
+        }
+
+        /**
+         * @return Operations per second over the whole run.
+         */
+        public double getThroughput() {
+            double seconds = this.elapsed.toNanos() / 1e9;
+            return seconds == 0 ? 0 : getOperations() / seconds;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format(Locale.ROOT, "=== Relatório final: %d operações em %.1f s (%.0f ops/s), %d erros ===%n",
+                    getOperations(), this.elapsed.toNanos() / 1e9, getThroughput(), getErrors()));
+            for (Map.Entry<Kind, OperationStats> entry : this.stats.entrySet()) {
+                OperationStats operation = entry.getValue();
+                if (operation.getCount() == 0) {
+                    continue;
+                }
+                LatencyHistogram latency = operation.getLatency();
+                report.append(String.format(Locale.ROOT,
+                        "%-6s count=%d errors=%d rows=%d mean=%.2f ms p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms%n",
+                        entry.getKey(), operation.getCount(), operation.getErrors(), operation.getRows(),
+                        latency.getMean() / 1e6, millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                        latency.getMax() / 1e6));
+            }
+            return report.toString();
+        }
+    }
+
+    private final IDbConnection db;
+    private final LoadConfig config;
+    private final PrintStream out;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong tickets = new AtomicLong();
+    private final AtomicBoolean failureLogged = new AtomicBoolean();
+    private final Map<Kind, OperationStats> total = new EnumMap<>(Kind.class);
+    private final Map<Kind, OperationStats> interval = new EnumMap<>(Kind.class);
+    private final int[] cumulativeWeights;
+
+    /**
+     * @param db The connection under test, already connected.
+     * @param config What to run.
+     * @param out Where live and final results are printed.
+     */
+    public LoadGenerator(IDbConnection db, LoadConfig config, PrintStream out) {
+        if (db == null || config == null || out == null) {
+            throw new IllegalArgumentException("Connection, configuration and output cannot be null.");
+        }
+        this.db = db;
+        this.config = config;
+        this.out = out;
+        for (Kind kind : Kind.values()) {
+            this.total.put(kind, new OperationStats());
+            this.interval.put(kind, new OperationStats());
+        }
+        // Pesos acumulados, na ordem de Kind: o sorteio escolhe o primeiro limite acima do número sorteado.
+        this.cumulativeWeights = new int[]{
+                config.insertWeight(),
+                config.insertWeight() + config.selectWeight(),
+                config.insertWeight() + config.selectWeight() + config.lookupWeight()};
+    }
+
+    public LoadGenerator(IDbConnection db, LoadConfig config) {
+        this(db, config, System.out);
+    }
+
+    /**
+     * Seeds the table, runs the workers for the configured duration while printing live results, and prints the report.
+     * @return The report of the measured run (the seeding is not included).
+     */
+    public Report run() {
+        seed();
+
+        LoadConfig c = this.config;
+        this.out.printf(Locale.ROOT, "Executando %d %s por %d s, %s, mix insert/select/lookup = %d/%d/%d%n",
+                c.threads(), c.virtualThreads() ? "virtual threads" : "threads", c.duration().toSeconds(),
+                c.targetRate() > 0 ? String.format(Locale.ROOT, "alvo de %.0f ops/s", c.targetRate()) : "sem limite de taxa",
+                c.insertWeight(), c.selectWeight(), c.lookupWeight());
+
+        long start = System.nanoTime();
+        long end = start + c.duration().toNanos();
+        long intervalNanos = c.targetRate() > 0 ? (long) (1e9 / c.targetRate()) : 0;
+
+        Thread reporter = Thread.ofPlatform().daemon().name("load-reporter").start(() -> report(start, end));
+        try (ExecutorService workers = c.virtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(c.threads())) {
+            for (int i = 0; i < c.threads(); i++) {
+                workers.execute(() -> work(start, end, intervalNanos));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        reporter.interrupt();
+        try {
+            reporter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Report report = new Report(Duration.ofNanos(elapsed), this.total);
+        this.out.print(report);
+        return report;
+    }
+
+    /**
+     * Inserts the seed rows in batches, so that the first reads of the run find data.
+     */
+    private void seed() {
+        long rows = this.config.seedRows();
+        if (rows == 0) {
+            return;
+        }
+        this.out.printf("Inserindo %d linhas iniciais na tabela '%s'...%n", rows, this.config.table());
+        long failed = 0;
+        while (rows > 0) {
+            int size = (int) Math.min(rows, 10_000);
+            for (int count : this.db.insertAll(this.config.table(), nextRows(size))) {
+                if (count == Statement.EXECUTE_FAILED) {
+                    failed++;
+                }
+            }
+            rows -= size;
+        }
+        if (failed > 0) {
+            long failures = failed;
+            LOG.warning(() -> failures + " linhas iniciais não foram inseridas.");
+        }
+    }
+
+    private void work(long start, long end, long intervalNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            long scheduled;
+            if (intervalNanos > 0) {
+                scheduled = start + this.tickets.getAndIncrement() * intervalNanos;
+                if (scheduled >= end) {
+                    return;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                scheduled = System.nanoTime();
+                if (scheduled >= end) {
+                    return;
+                }
+            }
+
+            Kind kind = pick(random);
+            long rows = 0;
+            boolean success;
+            try {
+                switch (kind) {
+                    case INSERT -> {
+                        rows = insert();
+                        success = rows == this.config.insertBatch();
+                    }
+                    case SELECT -> {
+                        int id = 1 + (int) random.nextLong(Math.clamp(this.generated.get(), 1, Integer.MAX_VALUE));
+                        rows = this.db.findById(this.config.table(), id).isPresent() ? 1 : 0;
+                        success = true;
+                    }
+                    default -> {
+                        String email = email(random.nextLong(Math.max(1, this.generated.get())));
+                        rows = this.db.findByEmail(this.config.table(), email).isPresent() ? 1 : 0;
+                        success = true;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // A primeira falha aparece no nível padrão de log; as demais só em FINE.
+                if (this.failureLogged.compareAndSet(false, true)) {
+                    LOG.log(Level.WARNING, "Primeira falha em uma operação " + kind + "; as seguintes só aparecem em FINE.", e);
+                } else {
+                    LOG.fine(() -> "Falha em uma operação " + kind + ": " + e.getMessage());
+                }
+                success = false;
+            }
+            long nanos = System.nanoTime() - scheduled;
+            this.total.get(kind).record(nanos, rows, success);
+            this.interval.get(kind).record(nanos, rows, success);
+        }
+    }
+
+    /**
+     * @return The number of rows inserted.
+     */
+    private long insert() {
+        if (this.config.insertBatch() == 1) {
+            long n = this.generated.getAndIncrement();
+            return this.db.insert(this.config.table(), "load-" + n, email(n)) ? 1 : 0;
+        }
+        long inserted = 0;
+        for (int count : this.db.insertAll(this.config.table(), nextRows(this.config.insertBatch()))) {
+            if (count != Statement.EXECUTE_FAILED) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    private List<Map.Entry<String, String>> nextRows(int size) {
+        long first = this.generated.getAndAdd(size);
+        List<Map.Entry<String, String>> rows = new ArrayList<>(size);
+        for (long n = first; n < first + size; n++) {
+            rows.add(new AbstractMap.SimpleImmutableEntry<>("load-" + n, email(n)));
+        }
+        return rows;
+    }
+
+    private String email(long n) {
+        return "load-" + this.runId + "-" + n + "@example.com";
+    }
+
+    /**
+     * Prints the throughput and percentiles of each interval until the run ends.
+     */
+    private void report(long start, long end) {
+        long intervalNanos = this.config.reportInterval().toNanos();
+        long next = start + intervalNanos;
+        while (next <= end) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            StringBuilder percentiles = new StringBuilder();
+            long operations = 0;
+            long errors = 0;
+            for (Map.Entry<Kind, OperationStats> entry : this.interval.entrySet()) {
+                OperationStats stats = entry.getValue();
+                long count = stats.getCount();
+                if (count > 0) {
+                    LatencyHistogram latency = stats.getLatency();
+                    percentiles.append(String.format(Locale.ROOT, " | %s p50 %.2f p99 %.2f p999 %.2f ms",
+                            entry.getKey(), millis(latency, 50), millis(latency, 99), millis(latency, 99.9)));
+                }
+                operations += count;
+                errors += stats.getErrors();
+                stats.reset();
+            }
+            this.out.printf(Locale.ROOT, "[%5.1f s] %8.0f ops/s, %d erros%s%n", (System.nanoTime() - start) / 1e9,
+                    operations / (intervalNanos / 1e9), errors, percentiles);
+            next += intervalNanos;
+        }
+    }
+
+    private Kind pick(ThreadLocalRandom random) {
+        int drawn = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+        for (int i = 0; i < this.cumulativeWeights.length; i++) {
+            if (drawn < this.cumulativeWeights[i]) {
+                return Kind.values()[i];
+            }
+        }
+        return Kind.LOOKUP;
+    }
+
+    private static double millis(LatencyHistogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadGenerator{config=" + this.config + ", generated=" + this.generated.get() + "}";
+    }
+}
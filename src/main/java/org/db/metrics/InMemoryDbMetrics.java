@@ -0,0 +1,70 @@
+package org.db.metrics;
+
+import org.db.interfaces.IDbMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Metrics kept in memory: one {@link OperationStats} per operation plus the connection acquire time.
+ * All counters are created up front, so recording only updates them.
+ * @version 1.0.0
+ */
+public class InMemoryDbMetrics implements IDbMetrics {
+
+    private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+    private final OperationStats acquire = new OperationStats();
+
+    public InMemoryDbMetrics() {
+        for (Operation operation : Operation.values()) {
+            this.operations.put(operation, new OperationStats());
+        }
+    }
+
+    @Override
+    public void record(Operation operation, long nanos, long rows, boolean success) {
+        this.operations.get(operation).record(nanos, rows, success);
+    }
+
+    @Override
+    public void recordAcquire(long nanos) {
+        this.acquire.record(nanos, 0, true);
+    }
+
+    /**
+     * @return The counters of one operation.
+     */
+    public OperationStats get(Operation operation) {
+        return this.operations.get(operation);
+    }
+
+    /**
+     * @return How long operations waited for a connection.
+     */
+    public OperationStats getAcquire() {
+        return this.acquire;
+    }
+
+    /**
+     * Zeroes every counter.
+     */
+    public void reset() {
+        this.operations.values().forEach(OperationStats::reset);
+        this.acquire.reset();
+    }
+
+    /**
+     * @return One line per operation that ran at least once, plus the acquire time.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<Operation, OperationStats> entry : this.operations.entrySet()) {
+            if (entry.getValue().getCount() > 0) {
+                report.append(String.format("%-10s %s%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        report.append(String.format("%-10s %s", "ACQUIRE", this.acquire));
+        return report.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package org.db.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link InMemoryDbMetrics} published as platform MBeans, one per operation, under
+ * {@code org.db:type=DbMetrics,name=<name>,operation=<operation>}, so they can be read with
+ * JConsole, VisualVM or any JMX exporter. Closing it unregisters the beans.
+ * @version 1.0.0
+ */
+public final class JmxDbMetrics extends InMemoryDbMetrics implements AutoCloseable {
+
+    private final MBeanServer server;
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    /**
+     * Registers the beans in the platform MBean server.
+     * @param name Distinguishes this client's beans from other clients in the same JVM (e.g. "usuarios").
+     * @throws RuntimeException if the beans cannot be registered, e.g. because the name is already taken.
+     */
+    public JmxDbMetrics(String name) {
+        this.server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Operation operation : Operation.values()) {
+                register(name, operation.name(), get(operation));
+            }
+            register(name, "ACQUIRE", getAcquire());
+        } catch (JMException e) {
+            close();
+            throw new RuntimeException("Could not register the metrics MBeans for '" + name + "'", e);
+        }
+    }
+
+    /**
+     * Unregisters the beans. The counters keep working.
+     */
+    @Override
+    public synchronized void close() {
+        for (ObjectName objectName : this.registered) {
+            try {
+                this.server.unregisterMBean(objectName);
+            } catch (JMException ignored) {
+                // Já removido por outra via.
+            }
+        }
+        this.registered.clear();
+    }
+
+    private synchronized void register(String name, String operation, OperationStats stats) throws JMException {
+        ObjectName objectName = new ObjectName("org.db", new Hashtable<>(Map.of(
+                "type", "DbMetrics",
+                "name", ObjectName.quote(name),
+                "operation", operation.toLowerCase(Locale.ROOT))));
+        this.server.registerMBean(new View(stats), objectName);
+        this.registered.add(objectName);
+    }
+
+    private record View(OperationStats stats) implements OperationMXBean {
+
+        @Override
+        public long getCount() {
+            return this.stats.getCount();
+        }
+
+        @Override
+        public long getErrors() {
+            return this.stats.getErrors();
+        }
+
+        @Override
+        public long getRows() {
+            return this.stats.getRows();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            return this.stats.getLatency().getMean() / 1000;
+        }
+
+        @Override
+        public double getP50Micros() {
+            return this.stats.getLatency().getValueAtPercentile(50) / 1000.0;
+        }
+
+        @Override
+        public double getP99Micros() {
+            return this.stats.getLatency().getValueAtPercentile(99) / 1000.0;
+        }
+
+        @Override
+        public double getP999Micros() {
+            return this.stats.getLatency().getValueAtPercentile(99.9) / 1000.0;
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return this.stats.getLatency().getMax() / 1000.0;
+        }
+
+        @Override
+        public void reset() {
+            this.stats.reset();
+        }
+    }
+}
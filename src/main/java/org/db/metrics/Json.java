@@ -0,0 +1,43 @@
+package org.db.metrics;
+
+/**
+ * Minimal JSON writing helpers for the hand-built JSON of {@link StatementTracer#toJson()} and
+ * {@link org.db.connection.ChangeExporter}'s NDJSON output.
+ * @version 1.0.0
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Appends a value as a JSON string literal, quoted and escaped, or {@code null} for a null value.
+     * @param json The text being built.
+     * @param value The value to append.
+     */
+    public static void string(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,23 @@
+package org.db.metrics;
+
+import org.db.interfaces.IDbMetrics;
+
+/**
+ * Metrics that discard every measurement. The default of every connection.
+ * @version 1.0.0
+ */
+public final class NoOpDbMetrics implements IDbMetrics {
+
+    public static final NoOpDbMetrics INSTANCE = new NoOpDbMetrics();
+
+    private NoOpDbMetrics() {
+    }
+
+    @Override
+    public void record(Operation operation, long nanos, long rows, boolean success) {
+    }
+
+    @Override
+    public void recordAcquire(long nanos) {
+    }
+}
@@ -0,0 +1,26 @@
+package org.db.metrics;
+
+/**
+ * JMX view of one {@link OperationStats}. Latencies are in microseconds.
+ * @version 1.0.0
+ */
+public interface OperationMXBean {
+
+    long getCount();
+
+    long getErrors();
+
+    long getRows();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
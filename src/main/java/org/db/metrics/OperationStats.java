@@ -0,0 +1,66 @@
+package org.db.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram of one kind of operation.
+ * @version 1.0.0
+ */
+public class OperationStats {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Records one finished operation.
+     */
+    public void record(long nanos, long rows, boolean success) {
+        this.count.increment();
+        if (!success) {
+            this.errors.increment();
+        }
+        if (rows != 0) {
+            this.rows.add(rows);
+        }
+        this.latency.record(nanos);
+    }
+
+    /**
+     * @return The number of operations recorded, successful or not.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    /**
+     * @return The total rows inserted or read.
+     */
+    public long getRows() {
+        return this.rows.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    public void reset() {
+        this.count.reset();
+        this.errors.reset();
+        this.rows.reset();
+        this.latency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, errors=%d, rows=%d, p50=%.1fus, p99=%.1fus, p999=%.1fus, max=%.1fus",
+                getCount(), getErrors(), getRows(), this.latency.getValueAtPercentile(50) / 1000.0,
+                this.latency.getValueAtPercentile(99) / 1000.0, this.latency.getValueAtPercentile(99.9) / 1000.0,
+                this.latency.getMax() / 1000.0);
+    }
+}
@@ -0,0 +1,272 @@
+package org.db.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * Traces every prepared statement execution: its SQL shape, bind count, duration and rows.
+ * <ul>
+ *   <li>Per shape, counts, errors, rows and a latency histogram are kept ({@link #getShapes()}).</li>
+ *   <li>Executions slower than the threshold are kept in a fixed-size ring buffer ({@link #getSlowStatements()}).</li>
+ *   <li>With {@link #setExplainSlow(boolean)}, the plan of the first slow execution of each SELECT shape is
+ *       captured once and cached ({@link #getPlans()}).</li>
+ * </ul>
+ * The shape is the SQL text with multi-row VALUES lists collapsed, so inserts of any batch size share one shape.
+ * Everything can be dumped with {@link #toJson()}.
+ * @version 1.0.0
+ */
+public class StatementTracer {
+
+    /**
+     * Default threshold above which an execution is considered slow.
+     */
+    public static final Duration DEFAULT_SLOW_THRESHOLD = Duration.ofMillis(100);
+
+    /**
+     * Default number of slow executions kept.
+     */
+    public static final int DEFAULT_SLOW_CAPACITY = 100;
+
+    private static final Pattern REPEATED_VALUES = Pattern.compile("(\\(\\?(?:, ?\\?)*\\))(?:, ?\\(\\?(?:, ?\\?)*\\))+");
+    private static final String PENDING_PLAN = "";
+
+    /**
+     * One slow execution.
+     * @param at When the execution finished.
+     * @param shape The SQL shape.
+     * @param binds Parameters bound, over all rows of a batch.
+     * @param nanos How long the execution took (for queries, until the result set was closed).
+     * @param rows Rows written or read.
+     * @param success false if the execution failed.
+     */
+    public record SlowStatement(Instant at, String shape, int binds, long nanos, long rows, boolean success) {
+    }
+
+    private record Shape(String text, int binds) {
+    }
+
+    private final long slowThresholdNanos;
+    private final AtomicReferenceArray<SlowStatement> slow;
+    private final AtomicLong slowCount = new AtomicLong();
+    private final Map<String, Shape> shapesBySql = new ConcurrentHashMap<>();
+    private final Map<String, OperationStats> statsByShape = new ConcurrentHashMap<>();
+    private final Map<String, String> plansByShape = new ConcurrentHashMap<>();
+    private volatile boolean explainSlow = false;
+
+    /**
+     * @param slowThreshold Executions that take at least this long are kept as slow.
+     * @param slowCapacity How many of the most recent slow executions are kept.
+     */
+    public StatementTracer(Duration slowThreshold, int slowCapacity) {
+        if (slowThreshold == null || slowThreshold.isNegative()) {
+            throw new IllegalArgumentException("Slow threshold cannot be null or negative.");
+        }
+        if (slowCapacity <= 0) {
+            throw new IllegalArgumentException("Slow statement capacity must be positive.");
+        }
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slow = new AtomicReferenceArray<>(slowCapacity);
+    }
+
+    /**
+     * Uses {@link #DEFAULT_SLOW_THRESHOLD} and {@link #DEFAULT_SLOW_CAPACITY}.
+     */
+    public StatementTracer() {
+        this(DEFAULT_SLOW_THRESHOLD, DEFAULT_SLOW_CAPACITY);
+    }
+
+    /**
+     * Captures the plan of the first slow execution of each SELECT shape. The plan is read with an extra
+     * {@code EXPLAIN} on the same connection, once per shape.
+     */
+    public void setExplainSlow(boolean explainSlow) {
+        this.explainSlow = explainSlow;
+    }
+
+    public boolean isExplainSlow() {
+        return this.explainSlow;
+    }
+
+    public Duration getSlowThreshold() {
+        return Duration.ofNanos(this.slowThresholdNanos);
+    }
+
+    /**
+     * Records one execution.
+     * @param sql The SQL text, with '?' placeholders.
+     * @param executions How many times the statement ran (the batch size for {@code executeBatch}, 1 otherwise).
+     * @param nanos How long it took.
+     * @param rows Rows written or read.
+     * @param success false if it failed.
+     * @return true if the caller should capture the plan with {@link #recordPlan(String, String)}: the execution was
+     *         slow, plan capture is on, it is a SELECT, and no plan was captured for its shape yet.
+     */
+    public boolean record(String sql, int executions, long nanos, long rows, boolean success) {
+        Shape shape = this.shapesBySql.computeIfAbsent(sql, StatementTracer::shape);
+        this.statsByShape.computeIfAbsent(shape.text(), s -> new OperationStats()).record(nanos, rows, success);
+        if (nanos < this.slowThresholdNanos) {
+            return false;
+        }
+
+        long index = this.slowCount.getAndIncrement();
+        this.slow.set((int) (index % this.slow.length()),
+                new SlowStatement(Instant.now(), shape.text(), shape.binds() * executions, nanos, rows, success));
+        return this.explainSlow && success && isSelect(shape.text())
+                && this.plansByShape.putIfAbsent(shape.text(), PENDING_PLAN) == null;
+    }
+
+    /**
+     * Stores the plan captured for a statement after {@link #record} asked for it.
+     * @param sql The SQL text passed to {@code record}.
+     * @param plan The plan, or a description of why it could not be captured.
+     */
+    public void recordPlan(String sql, String plan) {
+        this.plansByShape.put(this.shapesBySql.computeIfAbsent(sql, StatementTracer::shape).text(), plan);
+    }
+
+    /**
+     * @return Counters and latency of each SQL shape, sorted by shape.
+     */
+    public Map<String, OperationStats> getShapes() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.statsByShape));
+    }
+
+    /**
+     * @return The slow executions still in the ring buffer, most recent first.
+     */
+    public List<SlowStatement> getSlowStatements() {
+        long end = this.slowCount.get();
+        int capacity = this.slow.length();
+        List<SlowStatement> result = new ArrayList<>();
+        for (long i = end - 1; i >= 0 && i >= end - capacity; i--) {
+            SlowStatement statement = this.slow.get((int) (i % capacity));
+            if (statement != null) {
+                result.add(statement);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Slow executions recorded since creation or {@link #reset()}, including those evicted from the buffer.
+     */
+    public long getSlowCount() {
+        return this.slowCount.get();
+    }
+
+    /**
+     * @return The captured plans, keyed by SQL shape.
+     */
+    public Map<String, String> getPlans() {
+        Map<String, String> result = new TreeMap<>();
+        this.plansByShape.forEach((shape, plan) -> {
+            if (!plan.isEmpty()) {
+                result.put(shape, plan);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Forgets every statistic, slow execution and plan.
+     */
+    public void reset() {
+        this.statsByShape.clear();
+        this.plansByShape.clear();
+        for (int i = 0; i < this.slow.length(); i++) {
+            this.slow.set(i, null);
+        }
+        this.slowCount.set(0);
+    }
+
+    /**
+     * @return Shapes, slow executions and plans as a JSON object:
+     *         {@code {"slowThresholdMs":..., "shapes":[...], "slowStatements":[...], "plans":{...}}}.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"slowThresholdMs\":").append(number(this.slowThresholdNanos / 1e6));
+        json.append(",\"slowCount\":").append(getSlowCount());
+
+        json.append(",\"shapes\":[");
+        boolean first = true;
+        for (Map.Entry<String, OperationStats> entry : getShapes().entrySet()) {
+            OperationStats stats = entry.getValue();
+            LatencyHistogram latency = stats.getLatency();
+            json.append(first ? "" : ",").append("{\"sql\":");
+            Json.string(json, entry.getKey());
+            json.append(",\"count\":").append(stats.getCount())
+                    .append(",\"errors\":").append(stats.getErrors())
+                    .append(",\"rows\":").append(stats.getRows())
+                    .append(",\"meanMs\":").append(number(latency.getMean() / 1e6))
+                    .append(",\"p50Ms\":").append(number(latency.getValueAtPercentile(50) / 1e6))
+                    .append(",\"p99Ms\":").append(number(latency.getValueAtPercentile(99) / 1e6))
+                    .append(",\"maxMs\":").append(number(latency.getMax() / 1e6))
+                    .append('}');
+            first = false;
+        }
+
+        json.append("],\"slowStatements\":[");
+        first = true;
+        for (SlowStatement statement : getSlowStatements()) {
+            json.append(first ? "" : ",").append("{\"at\":");
+            Json.string(json, statement.at().toString());
+            json.append(",\"sql\":");
+            Json.string(json, statement.shape());
+            json.append(",\"binds\":").append(statement.binds())
+                    .append(",\"ms\":").append(number(statement.nanos() / 1e6))
+                    .append(",\"rows\":").append(statement.rows())
+                    .append(",\"success\":").append(statement.success())
+                    .append('}');
+            first = false;
+        }
+
+        json.append("],\"plans\":{");
+        first = true;
+        for (Map.Entry<String, String> plan : getPlans().entrySet()) {
+            json.append(first ? "" : ",");
+            Json.string(json, plan.getKey());
+            json.append(':');
+            Json.string(json, plan.getValue());
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementTracer{shapes=" + this.statsByShape.size() + ", slow=" + getSlowCount()
+                + ", plans=" + getPlans().size() + "}";
+    }
+
+    /**
+     * @return The SQL with every multi-row VALUES list collapsed to its first row, and its '?' count.
+     */
+    private static Shape shape(String sql) {
+        int binds = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                binds++;
+            }
+        }
+        return new Shape(REPEATED_VALUES.matcher(sql).replaceAll("$1, ..."), binds);
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.regionMatches(true, 0, "SELECT", 0, 6);
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
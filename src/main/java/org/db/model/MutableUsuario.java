@@ -0,0 +1,56 @@
+package org.db.model;
+
+import java.time.Instant;
+
+/**
+ * A reusable holder for one row of the 'usuarios' table.
+ * Mappers that reuse rows overwrite the same instance for every row of a query, so it is only valid until
+ * the next row is read; use {@link #toUsuario()} to keep a copy.
+ * @version 1.0.0
+ */
+public final class MutableUsuario {
+
+    private int id;
+    private String nome;
+    private String email;
+    private Instant dataCadastro;
+
+    /**
+     * Overwrites every field with the values of the current row.
+     */
+    public MutableUsuario set(int id, String nome, String email, Instant dataCadastro) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.dataCadastro = dataCadastro;
+        return this;
+    }
+
+    public int id() {
+        return this.id;
+    }
+
+    public String nome() {
+        return this.nome;
+    }
+
+    public String email() {
+        return this.email;
+    }
+
+    public Instant dataCadastro() {
+        return this.dataCadastro;
+    }
+
+    /**
+     * @return An immutable copy of the current row.
+     */
+    public Usuario toUsuario() {
+        return new Usuario(this.id, this.nome, this.email, this.dataCadastro);
+    }
+
+    @Override
+    public String toString() {
+        return "MutableUsuario[id=" + this.id + ", nome=" + this.nome + ", email=" + this.email + ", dataCadastro=" + this.dataCadastro + "]";
+    }
+}
@@ -0,0 +1,11 @@
+package org.db.model;
+
+/**
+ * One row of a table with 'id', 'nome' and 'email' columns (e.g., "usuarios").
+ * @param id The row id.
+ * @param nome The user's name.
+ * @param email The user's email.
+ * @version 1.0.0
+ */
+public record UserRow(int id, String nome, String email) {
+}
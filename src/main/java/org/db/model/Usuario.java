@@ -0,0 +1,14 @@
+package org.db.model;
+
+import java.time.Instant;
+
+/**
+ * One row of the 'usuarios' table.
+ * @param id The row id.
+ * @param nome The user's name.
+ * @param email The user's email.
+ * @param dataCadastro When the row was created, or null if the column is NULL.
+ * @version 1.0.0
+ */
+public record Usuario(int id, String nome, String email, Instant dataCadastro) {
+}
@@ -0,0 +1,30 @@
+package org.db.model;
+
+import java.util.List;
+
+/**
+ * Outcome of one batch sent by an upsert or an insert that ignores duplicates.
+ * @param rows Rows in the batch.
+ * @param inserted Rows inserted as new rows.
+ * @param updated Existing rows whose values changed.
+ * @param skipped Rows that matched an existing email and changed nothing.
+ * @param failed Rows not written because the whole batch failed.
+ * @version 1.0.0
+ */
+public record WriteCounts(int rows, int inserted, int updated, int skipped, int failed) {
+
+    /**
+     * @return The counts of every batch added together.
+     */
+    public static WriteCounts total(List<WriteCounts> batches) {
+        int rows = 0, inserted = 0, updated = 0, skipped = 0, failed = 0;
+        for (WriteCounts batch : batches) {
+            rows += batch.rows();
+            inserted += batch.inserted();
+            updated += batch.updated();
+            skipped += batch.skipped();
+            failed += batch.failed();
+        }
+        return new WriteCounts(rows, inserted, updated, skipped, failed);
+    }
+}
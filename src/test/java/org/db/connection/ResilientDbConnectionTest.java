@@ -0,0 +1,54 @@
+package org.db.connection;
+
+import org.db.interfaces.IDbMetrics.Operation;
+import org.db.metrics.InMemoryDbMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link ResilientDbConnection} against an in-memory H2 database in MySQL mode.
+ */
+class ResilientDbConnectionTest {
+
+    private ResilientDbConnection db;
+    private InMemoryDbMetrics metrics;
+
+    @BeforeEach
+    void connect() {
+        // Um banco por teste: o SchemaRegistry guarda os metadados por URL.
+        String url = "jdbc:h2:mem:resilient-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        this.db = new ResilientDbConnection(url, "sa", "");
+        this.metrics = new InMemoryDbMetrics();
+        this.db.setMetrics(this.metrics);
+        assertTrue(this.db.connect());
+    }
+
+    @AfterEach
+    void disconnect() {
+        this.db.disconnect();
+    }
+
+    @Test
+    void checkReconnectsAndReplaysAfterTheConnectionDrops() throws Exception {
+        Connection dropped = this.db.getConnection();
+        dropped.close();
+
+        assertTrue(this.db.check());
+
+        Connection current = this.db.getConnection();
+        assertNotSame(dropped, current);
+        assertFalse(current.isClosed());
+        assertEquals(1, this.metrics.get(Operation.RECONNECT).getCount());
+        assertEquals(1, this.metrics.get(Operation.CHECK).getErrors());
+        assertEquals(2, this.metrics.get(Operation.CHECK).getCount());
+    }
+}